@@ -0,0 +1,19 @@
+package org.example.syntak.bench;
+
+import org.openjdk.jmh.profile.GCProfiler; // Import profileru alokací
+import org.openjdk.jmh.runner.Runner; // Import spouštěče benchmarků
+import org.openjdk.jmh.runner.RunnerException; // Import výjimky spouštěče
+import org.openjdk.jmh.runner.options.CommandLineOptions; // Import pro parametry z příkazové řádky
+import org.openjdk.jmh.runner.options.CommandLineOptionException; // Import výjimky při chybných parametrech
+import org.openjdk.jmh.runner.options.OptionsBuilder; // Import pro sestavení nastavení
+
+// Vstupní bod uber-jaru – k parametrům z příkazové řádky vždy přidá GC profiler (alokace v B/op a MB/s)
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmdOptions = new CommandLineOptions(args); // Např. -p waveType=saw nebo název benchmarku
+        new Runner(new OptionsBuilder()
+                .parent(cmdOptions)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
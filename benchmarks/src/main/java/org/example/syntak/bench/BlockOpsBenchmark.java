@@ -0,0 +1,62 @@
+package org.example.syntak.bench;
+
+import org.example.syntak.BlockOps; // Import měřených blokových operací
+import org.openjdk.jmh.annotations.*; // Import anotací JMH
+import org.openjdk.jmh.infra.Blackhole; // Import pro pohlcení výsledků, aby je JIT neodstranil
+
+import java.util.Random; // Import pro naplnění vstupu náhodnými vzorky
+import java.util.concurrent.TimeUnit; // Import pro jednotky času výsledků
+
+// Porovnání skalárních a vektorových (Vector API) blokových operací v ns/vzorek
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(BlockOpsBenchmark.SAMPLES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class BlockOpsBenchmark {
+
+    static final int SAMPLES = 8192; // Počet vzorků na jedno volání
+
+    @Param({"scalar", "vector"})
+    public String ops; // Implementace
+
+    @Param({"32", "256", "2048"})
+    public int blockSize; // 32 = řídicí úsek obálky v hlasu
+
+    private BlockOps blockOps;
+    private float[] src;
+    private float[] dst;
+    private short[] pcm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blockOps = ops.equals("vector")
+                ? BlockOps.vector().orElseThrow(() -> new IllegalStateException("jdk.incubator.vector není k dispozici"))
+                : BlockOps.scalar();
+        Random random = new Random(42); // Pevné semínko pro opakovatelnost
+        src = new float[blockSize];
+        for (int i = 0; i < blockSize; i++) {
+            src[i] = random.nextFloat() * 2.4f - 1.2f; // Část vzorků mimo rozsah, aby se měřilo i ořezání
+        }
+        dst = new float[blockSize];
+        pcm = new short[blockSize];
+    }
+
+    @Benchmark
+    public void mixRamped(Blackhole bh) {
+        for (int done = 0; done < SAMPLES; done += blockSize) {
+            blockOps.mixRamped(dst, 0, src, 0, blockSize, 0.5f, 1e-5f, 0.8f, -1e-5f);
+        }
+        bh.consume(dst);
+    }
+
+    @Benchmark
+    public void toPcm16(Blackhole bh) {
+        for (int done = 0; done < SAMPLES; done += blockSize) {
+            blockOps.toPcm16(src, 0, blockSize, pcm, 0);
+        }
+        bh.consume(pcm);
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.syntak.bench;
+
+import org.example.syntak.BlockOps; // Import skalárních a vektorových blokových operací
+import org.example.syntak.PcmConverter; // Import měřeného převodu na PCM
+import org.openjdk.jmh.annotations.*; // Import anotací JMH
+import org.openjdk.jmh.infra.Blackhole; // Import pro pohlcení výsledků, aby je JIT neodstranil
+
+import javax.sound.sampled.AudioFormat; // Import pro popis cílového formátu
+import java.nio.ByteBuffer; // Import cílového PCM bufferu
+import java.util.Random; // Import pro naplnění vstupu náhodnými vzorky
+import java.util.concurrent.TimeUnit; // Import pro jednotky času výsledků
+
+// Měření převodu vzorků na PCM (PcmConverter z renderu výstupní linky) v ns/vzorek
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(PcmConversionBenchmark.SAMPLES)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class PcmConversionBenchmark {
+
+    static final int SAMPLES = 8192; // Počet vzorků na jedno volání
+
+    @Param({"scalar", "vector"})
+    public String ops; // Implementace blokových operací
+
+    @Param({"16", "24", "32", "float"})
+    public String format; // Bitová hloubka nebo 32bitový float
+
+    @Param({"64", "256", "2048"})
+    public int blockSize; // Velikost bloku ve vzorcích
+
+    @Param({"BIG_ENDIAN", "LITTLE_ENDIAN"})
+    public String byteOrder; // Pořadí bajtů výstupní linky
+
+    private float[] samples; // Vstupní vzorky
+    private PcmConverter converter; // Převodník s vybranou implementací
+    private AudioFormat audioFormat; // Cílový formát
+    private ByteBuffer pcm; // Výstupní PCM blok
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        samples = new float[blockSize];
+        Random random = new Random(42); // Pevné semínko pro opakovatelnost
+        for (int i = 0; i < blockSize; i++) {
+            samples[i] = random.nextFloat() * 2 - 1; // Vzorky v rozsahu -1 až 1
+        }
+        BlockOps blockOps = ops.equals("vector")
+                ? BlockOps.vector().orElseThrow(() -> new IllegalStateException("jdk.incubator.vector není k dispozici"))
+                : BlockOps.scalar();
+        converter = new PcmConverter(blockOps);
+        boolean floating = format.equals("float");
+        audioFormat = PcmConverter.format(44100, floating ? 32 : Integer.parseInt(format), floating, 1,
+                byteOrder.equals("BIG_ENDIAN"));
+        pcm = ByteBuffer.allocate(blockSize * audioFormat.getFrameSize());
+    }
+
+    @Benchmark
+    public void convert(Blackhole bh) {
+        for (int done = 0; done < SAMPLES; done += blockSize) {
+            pcm.clear(); // Příprava bufferu na další blok
+            converter.convert(samples, 0, blockSize, audioFormat, pcm);
+            bh.consume(pcm);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.syntak.bench;
+
+import org.example.syntak.SynthEngine; // Import měřeného zvukového enginu
+import org.openjdk.jmh.annotations.*; // Import anotací JMH
+import org.openjdk.jmh.infra.Blackhole; // Import pro pohlcení výsledků, aby je JIT neodstranil
+
+import java.util.concurrent.TimeUnit; // Import pro jednotky času výsledků
+
+// Měření času jednoho bloku při mnoha současně znějících hlasech (porovnat s rozpočtem bloku v reálném čase)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PolyphonyBenchmark {
+
+    @Param({"8", "64", "128"})
+    public int voices; // Počet současně znějících not (nejvýše 128 – každý hlas potřebuje jinou platnou notu)
+
+    @Param({"256", "2048"})
+    public int blockSize; // Velikost bloku ve vzorcích
+
+    private SynthEngine engine; // Měřený engine
+    private float[] block; // Předalokovaný blok
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new SynthEngine(voices);
+        engine.setWaveType("saw");
+        engine.setTestEnvelope(true); // Hlasy drží plnou úroveň po celou dobu měření
+        for (int i = 0; i < voices; i++) {
+            // Každý hlas na jiné platné notě (0–127) rozprostřené přes celý rozsah, aby se opakovaný úder nesloučil
+            engine.noteOn(i * 128 / voices, 1.0 / voices);
+        }
+        block = new float[blockSize];
+    }
+
+    @Benchmark
+    public void renderBlock(Blackhole bh) {
+        engine.render(block, 0, blockSize);
+        bh.consume(block);
+    }
+}
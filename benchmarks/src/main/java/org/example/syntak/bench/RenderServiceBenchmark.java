@@ -0,0 +1,72 @@
+package org.example.syntak.bench;
+
+import org.example.syntak.AudioSink; // Import cíle renderu
+import org.example.syntak.Note; // Import noty časové osy
+import org.example.syntak.Patch; // Import nastavení zvuku
+import org.example.syntak.RenderJob; // Import úlohy dávkového renderu
+import org.example.syntak.RenderService; // Import měřené služby
+import org.example.syntak.RenderTask; // Import odkazu na úlohu
+import org.openjdk.jmh.annotations.*; // Import anotací JMH
+import org.openjdk.jmh.infra.Blackhole; // Import pro pohlcení výsledků, aby je JIT neodstranil
+
+import java.util.ArrayList; // Import pro seznamy not a úloh
+import java.util.List; // Import pro seznamy
+import java.util.Properties; // Import pro výchozí patch
+import java.util.concurrent.TimeUnit; // Import pro jednotky času výsledků
+
+// Propustnost dávkového renderu podle počtu vláken – při dostatku jader má čas dávky klesat téměř lineárně
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RenderServiceBenchmark {
+
+    private static final int JOBS = 32; // Počet úloh v dávce
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism; // Počet pracovních vláken
+
+    private RenderService service; // Měřená služba
+    private List<Note> notes;      // Stejná časová osa pro všechny úlohy
+    private Patch patch;           // Výchozí patch
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        service = new RenderService(parallelism);
+        patch = Patch.fromProperties(new Properties());
+        notes = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            notes.add(new Note(48 + i, i * 0.25, 1.0, 0.8)); // 16 překrývajících se not, asi 5 s zvuku
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        service.close();
+    }
+
+    @Benchmark
+    public void renderBatch(Blackhole bh) throws Exception {
+        List<RenderTask> tasks = new ArrayList<>(JOBS);
+        for (int j = 0; j < JOBS; j++) {
+            tasks.add(service.submit(new RenderJob("job-" + j, patch, notes, new DiscardSink(bh))));
+        }
+        for (RenderTask task : tasks) {
+            bh.consume(task.get());
+        }
+    }
+
+    // Cíl, který vzorky jen pohltí – měří se render, ne disk
+    private record DiscardSink(Blackhole bh) implements AudioSink {
+        @Override
+        public void write(float[] samples, int offset, int length) {
+            bh.consume(samples);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
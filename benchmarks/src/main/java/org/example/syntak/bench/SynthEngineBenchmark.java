@@ -0,0 +1,58 @@
+package org.example.syntak.bench;
+
+import org.example.syntak.SynthEngine; // Import měřeného zvukového enginu
+import org.example.syntak.SynthParameter; // Import typových parametrů
+import org.openjdk.jmh.annotations.*; // Import anotací JMH
+import org.openjdk.jmh.infra.Blackhole; // Import pro pohlcení výsledků, aby je JIT neodstranil
+
+import java.util.concurrent.TimeUnit; // Import pro jednotky času výsledků
+
+// Měření render smyčky: čas na jeden vzorek pro každý typ vlny, s obálkou i bez ní a pro různé velikosti bloků
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@OperationsPerInvocation(SynthEngineBenchmark.SAMPLES) // Výsledek je tak v ns/vzorek
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SynthEngineBenchmark {
+
+    static final int SAMPLES = 8192; // Počet vzorků na jedno volání – dělitelný všemi velikostmi bloků
+
+    @Param({"sine", "square", "saw"})
+    public String waveType; // Typ vlny
+
+    @Param({"true", "false"})
+    public boolean testEnvelope; // true = obálka vypnutá (pevná hodnota 1.0)
+
+    @Param({"64", "256", "2048"})
+    public int blockSize; // Velikost bloku ve vzorcích
+
+    private SynthEngine engine; // Měřený engine
+    private float[] block; // Předalokovaný blok pro render()
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        engine = new SynthEngine(); // Vytvoření enginu
+        engine.setWaveType(waveType); // Nastavení typu vlny
+        engine.setTestEnvelope(testEnvelope); // Zapnutí/vypnutí obálky
+        engine.updateParameter(SynthParameter.TUNE, 440); // Pevná frekvence pro srovnatelné výsledky
+        engine.noteOn(SynthEngine.DEFAULT_NOTE, 1.0); // Jeden znějící hlas
+        block = new float[blockSize];
+    }
+
+    @Benchmark
+    public void getWaveform(Blackhole bh) { // Jednorázové alokující API: render bloku plus nové pole double[] při každém volání
+        for (int done = 0; done < SAMPLES; done += blockSize) {
+            bh.consume(engine.getWaveform(blockSize));
+        }
+    }
+
+    @Benchmark
+    public void render(Blackhole bh) { // Bezalokační API používané audio vláknem
+        for (int done = 0; done < SAMPLES; done += blockSize) {
+            engine.render(block, 0, blockSize);
+            bh.consume(block);
+        }
+    }
+}
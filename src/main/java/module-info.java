@@ -3,6 +3,8 @@ module org.example.syntak {
     requires javafx.fxml;
     requires java.desktop;
     requires java.logging;
+    requires java.management;
+    requires static jdk.incubator.vector; // Volitelné – bez modulu se použijí skalární smyčky
     requires static lombok;
 
 
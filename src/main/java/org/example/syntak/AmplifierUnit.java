@@ -0,0 +1,40 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování výstupu
+
+// Zesilovač řízený napětím: výstup = signál · řídicí signál · zesílení. Zesílení se mezi bloky
+// mění lineární rampou (vyhlazení knobu hlasitosti), řídicí vstup je typicky obálka.
+public final class AmplifierUnit extends UnitGenerator {
+
+    public static final int AUDIO = 0;   // Vstup signálu
+    public static final int CONTROL = 1; // Řídicí vstup (nezapojený = 1.0)
+
+    private double gain = 1.0;  // Zesílení na začátku bloku
+    private double gainStep;    // Změna zesílení za vzorek
+
+    public AmplifierUnit() {
+        super(2);
+    }
+
+    public void setGain(double gain, double gainStep) {
+        this.gain = gain;
+        this.gainStep = gainStep;
+    }
+
+    @Override
+    protected void process(int length) {
+        float[] in = inputs[AUDIO];
+        float[] control = inputs[CONTROL];
+        if (in == null) {
+            Arrays.fill(output, 0, length, 0f);
+            return;
+        }
+        double g = gain;
+        for (int i = 0; i < length; i++) {
+            float c = control == null ? 1f : control[i];
+            output[i] = (float) (in[i] * c * g);
+            g += gainStep;
+        }
+        gain = g; // Další úsek bloku pokračuje v rampě
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.syntak;
+
+import javax.sound.sampled.*; // Import pro práci se zvukovými operacemi
+import java.nio.ByteBuffer; // Import pro PCM buffer jedné periody
+import java.nio.ByteOrder; // Import pro pořadí bajtů ve vzorku
+import java.util.ArrayList; // Import pro seznam kandidátních formátů
+import java.util.HashSet; // Import pro vyřazení duplicitních kandidátů
+import java.util.List; // Import pro seznam kandidátů
+import java.util.Set; // Import pro množinu popisů
+import java.util.concurrent.locks.LockSupport; // Import pro krátké čekání na volné místo v lince
+import java.util.function.LongSupplier; // Import pro hodiny, na které se mapuje čas přehrání
+import java.util.function.ObjLongConsumer; // Import pro zpětné volání, které vyplní periodu
+import java.util.logging.Level; // Import pro úroveň logování
+import java.util.logging.Logger; // Import pro logování
+
+// Výstup na zvukovou kartu: jedna linka otevřená jednou a znovu používaná, nastavitelná velikost
+// a počet period, vlastní render vlákno, které drží linku napřed, a detekce podtečení (xrun).
+// Dosažitelná latence = periodFrames × periodCount / vzorkovací frekvence.
+// Každá perioda dostane čas, kdy zazní: pozice snímku ve streamu převedená na hodiny volajícího
+// přes vyhlazený odhad, kdy linka přehrála snímek 0 (pozice linky se mění po skocích).
+public class AudioOutput {
+
+    public static final int DEFAULT_PERIOD_FRAMES = 256; // ≈ 5,8 ms při 44,1 kHz
+    public static final int DEFAULT_PERIOD_COUNT = 4;    // Počet period v bufferu linky
+
+    private final AudioFormat format; // Formát linky
+    private final int periodFrames;   // Snímků na periodu
+    private final int periodCount;    // Period v bufferu linky
+    private final int periodBytes;    // Bajtů na periodu
+
+    private SourceDataLine line;      // Zvuková linka (otevřená jednou)
+    private Thread thread;            // Render vlákno
+    private volatile boolean running; // Stav render vlákna
+    private volatile long underruns;  // Počet zjištěných podtečení
+    private long framesWritten;       // Snímky zapsané od spuštění (jen render vlákno)
+    private long frameZeroNanos;      // Vyhlazený čas hodin, kdy zazněl snímek 0 (jen render vlákno)
+
+    private static final Logger logger = Logger.getLogger(AudioOutput.class.getName()); // Logger pro záznam událostí
+
+    public AudioOutput(AudioFormat format, int periodFrames, int periodCount) {
+        if (periodFrames <= 0 || periodCount < 2) {
+            throw new IllegalArgumentException("Perioda musí mít aspoň 1 snímek a buffer aspoň 2 periody");
+        }
+        this.format = format;
+        this.periodFrames = periodFrames;
+        this.periodCount = periodCount;
+        this.periodBytes = periodFrames * format.getFrameSize();
+    }
+
+    // Nejbližší formát, který systém pro výstupní linku podporuje. Přednost má vzorkovací frekvence
+    // (aby systémový mixer nepřevzorkovával), pak kódování, počet kanálů a nakonec pořadí bajtů.
+    // Pokud nevyhoví nic, vrátí se požadovaný formát a chybu ohlásí open().
+    public static AudioFormat negotiate(AudioFormat preferred) {
+        for (AudioFormat candidate : candidates(preferred)) {
+            if (PcmConverter.isSupported(candidate)
+                    && AudioSystem.isLineSupported(new DataLine.Info(SourceDataLine.class, candidate))) {
+                if (!candidate.matches(preferred)) {
+                    logger.log(Level.INFO, "Output format {0} instead of requested {1}", new Object[]{candidate, preferred});
+                }
+                return candidate;
+            }
+        }
+        return preferred;
+    }
+
+    // Kandidáti v pořadí preference: požadovaný formát, pak obvyklé frekvence, hloubky a počty kanálů
+    private static List<AudioFormat> candidates(AudioFormat preferred) {
+        float[] rates = {preferred.getSampleRate(), 48000f, 44100f, 96000f};
+        boolean preferredFloat = AudioFormat.Encoding.PCM_FLOAT.equals(preferred.getEncoding());
+        int[][] encodings = {{preferred.getSampleSizeInBits(), preferredFloat ? 1 : 0}, {32, 1}, {24, 0}, {16, 0}}; // {bity, float}
+        int[] channels = {preferred.getChannels(), 2, 1};
+        boolean[] orders = {preferred.isBigEndian(), !preferred.isBigEndian()};
+        List<AudioFormat> result = new ArrayList<>();
+        Set<String> seen = new HashSet<>(); // AudioFormat nemá equals – duplicity podle popisu
+        for (float rate : rates) {
+            for (int[] encoding : encodings) {
+                for (int ch : channels) {
+                    for (boolean bigEndian : orders) {
+                        AudioFormat f = PcmConverter.format(rate, encoding[0], encoding[1] == 1, ch, bigEndian);
+                        if (seen.add(f.toString())) {
+                            result.add(f);
+                        }
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    // Otevření linky s bufferem přesně na periodCount period; opakované volání nic nedělá
+    public synchronized void open() throws LineUnavailableException {
+        if (line != null) {
+            return;
+        }
+        DataLine.Info info = new DataLine.Info(SourceDataLine.class, format); // Informace o datové lince
+        try {
+            line = (SourceDataLine) AudioSystem.getLine(info); // Získání zvukové linky
+        } catch (IllegalArgumentException e) { // Stroj bez zvukového zařízení
+            throw (LineUnavailableException) new LineUnavailableException("No line for " + format).initCause(e);
+        }
+        line.open(format, periodBytes * periodCount); // Malý buffer místo výchozího (velkého)
+        if (line.getBufferSize() != periodBytes * periodCount) { // Ovladač může velikost upravit
+            logger.log(Level.INFO, "Audio buffer {0} B instead of requested {1} B",
+                    new Object[]{line.getBufferSize(), periodBytes * periodCount});
+        }
+    }
+
+    // Spuštění render vlákna; renderer vyplní celý předaný buffer jednou periodou a dostane čas
+    // podle clock (v ns), kdy první snímek periody zazní
+    public synchronized void start(ObjLongConsumer<ByteBuffer> renderer, LongSupplier clock) throws LineUnavailableException {
+        if (running) {
+            return;
+        }
+        open();
+        running = true;
+        thread = new Thread(() -> renderLoop(renderer, clock), "SynthSoundThread");
+        thread.setDaemon(true); // Nezdržuje ukončení aplikace
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    // Zastavení render vlákna; linka zůstává otevřená pro další start
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    // Zastavení a uvolnění linky
+    public synchronized void close() {
+        stop();
+        if (line != null) {
+            line.close();
+            line = null;
+        }
+    }
+
+    private void renderLoop(ObjLongConsumer<ByteBuffer> renderer, LongSupplier clock) {
+        ByteBuffer period = ByteBuffer.allocate(periodBytes) // Jediná alokace na celé přehrávání
+                .order(format.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        long parkNanos = (long) (periodFrames / format.getSampleRate() * 1e9 / 4); // Čtvrt periody
+        double nanosPerFrame = 1e9 / format.getSampleRate();
+        framesWritten = 0;
+        long positionBase = line.getLongFramePosition(); // Pozice linky nemusí po flush() začínat od nuly
+        frameZeroNanos = clock.getAsLong(); // Linka se spustí hned po předplnění
+        try {
+            // Předplnění bufferu, pak teprve spuštění linky; jen dokud se perioda vejde celá,
+            // protože ovladač mohl buffer zmenšit a zápis do nespuštěné linky by blokoval
+            for (int i = 0; i < periodCount && running && line.available() >= periodBytes; i++) {
+                writePeriod(renderer, period, nanosPerFrame);
+            }
+            line.start();
+            frameZeroNanos = clock.getAsLong();
+            int writable = Math.min(periodBytes, line.getBufferSize()); // Buffer menší než perioda – zápis počká v line.write
+            while (running) {
+                if (line.available() < writable) {
+                    LockSupport.parkNanos(parkNanos); // Linka je plná – počkat, až karta přehraje část
+                    continue;
+                }
+                long position = line.getLongFramePosition() - positionBase;
+                long measured = clock.getAsLong() - (long) (position * nanosPerFrame); // Okamžitý odhad času snímku 0
+                if (framesWritten - position <= 0) {
+                    underruns++; // Karta přehrála vše, co jsme zapsali – došlo k výpadku
+                    frameZeroNanos = measured; // Výpadek posunul přehrávání, starý odhad neplatí
+                } else {
+                    frameZeroNanos += (measured - frameZeroNanos) / 16; // Vyhlazení skoků pozice a pomalý drift hodin
+                }
+                writePeriod(renderer, period, nanosPerFrame);
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Error while generating sound", e); // Záznam chyby při generování zvuku
+            running = false;
+        } finally {
+            line.stop(); // Zastavení linky
+            line.flush(); // Zahození nepřehraných dat, aby další start začal hned
+        }
+    }
+
+    private void writePeriod(ObjLongConsumer<ByteBuffer> renderer, ByteBuffer period, double nanosPerFrame) {
+        period.clear();
+        renderer.accept(period, frameZeroNanos + (long) (framesWritten * nanosPerFrame)); // Render periody přímo do PCM bufferu
+        int written = line.write(period.array(), 0, period.position()); // Zápis periody do zvukové linky
+        framesWritten += written / format.getFrameSize(); // Jen skutečně zapsané snímky (zastavení může zápis zkrátit)
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getUnderruns() { // Počet podtečení od vytvoření výstupu
+        return underruns;
+    }
+
+    public int getPeriodFrames() {
+        return periodFrames;
+    }
+
+    public int getPeriodCount() {
+        return periodCount;
+    }
+
+    // Latence výstupu v sekundách daná velikostí bufferu linky
+    public double getLatencySeconds() {
+        int bufferBytes = line != null ? line.getBufferSize() : periodBytes * periodCount;
+        return bufferBytes / (double) format.getFrameSize() / format.getSampleRate();
+    }
+
+    // Ovladač hlasitosti linky, pokud ho zařízení nabízí
+    public FloatControl getVolumeControl() {
+        if (line != null && line.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
+            return (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN);
+        }
+        return null;
+    }
+}
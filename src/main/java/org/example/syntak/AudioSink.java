@@ -0,0 +1,13 @@
+package org.example.syntak;
+
+import java.io.IOException; // Import pro chyby zápisu
+
+// Cíl vyrenderovaných vzorků při offline renderu (soubor, paměť, síť …)
+public interface AudioSink extends AutoCloseable {
+
+    // Zápis bloku vzorků v rozsahu -1 až 1
+    void write(float[] samples, int offset, int length) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
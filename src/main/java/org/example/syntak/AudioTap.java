@@ -0,0 +1,59 @@
+package org.example.syntak;
+
+import java.util.concurrent.atomic.AtomicLong; // Import pro pozici zápisu sdílenou mezi vlákny
+
+// Bezzámkový kruhový buffer s posledními vyrenderovanými vzorky.
+// Audio vlákno do něj zapisuje (jeden zapisovatel), osciloskop a další zobrazení jen čtou.
+public class AudioTap {
+
+    private final float[] ring;   // Kruhový buffer vzorků
+    private final int mask;       // Maska pro zabalení indexu (kapacita je mocnina dvou)
+    private final AtomicLong written = new AtomicLong(); // Celkový počet zapsaných vzorků
+
+    public AudioTap(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1; // Zaokrouhlení nahoru na mocninu dvou
+        ring = new float[size];
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return ring.length;
+    }
+
+    // Zveřejnění vyrenderovaného bloku (audio vlákno); nic nealokuje a nečeká na čtenáře
+    public void publish(float[] samples, int offset, int length) {
+        long position = written.get();
+        if (length > ring.length) { // Větší blok než buffer – stačí jeho konec
+            offset += length - ring.length;
+            position += length - ring.length;
+            length = ring.length;
+        }
+        int start = (int) (position & mask);
+        int first = Math.min(length, ring.length - start); // Část do konce bufferu
+        System.arraycopy(samples, offset, ring, start, first);
+        System.arraycopy(samples, offset + first, ring, 0, length - first); // Zbytek od začátku
+        written.lazySet(position + length); // Zveřejnění až po zápisu dat
+    }
+
+    // Celkový počet dosud zveřejněných vzorků (levná kontrola, zda přibyla nová data)
+    public long position() {
+        return written.get();
+    }
+
+    // Zkopíruje posledních length vzorků do target; vrací celkovou pozici konce okna
+    public long latest(float[] target, int length) {
+        length = Math.min(length, ring.length);
+        for (int attempt = 0; ; attempt++) {
+            long end = written.get();
+            long begin = end - length;
+            for (int i = 0; i < length; i++) {
+                long index = begin + i;
+                target[i] = index < 0 ? 0f : ring[(int) (index & mask)]; // Před prvním zápisem je ticho
+            }
+            // Pokud zapisovatel mezitím přepsal čtené okno, čtení se zopakuje (max. několikrát)
+            if (written.get() - begin <= ring.length || attempt == 3) {
+                return end;
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.syntak;
+
+import java.util.Optional; // Import pro volitelnou vektorovou implementaci
+import java.util.logging.Level; // Import pro úroveň logování
+import java.util.logging.Logger; // Import pro logování
+
+// Blokové operace render smyčky (mix hlasů, zesílení s obálkou, ořezání, převod na 16 bitů).
+// Pokud je k dispozici modul jdk.incubator.vector (spuštění s --add-modules jdk.incubator.vector),
+// použije se implementace přes Vector API, jinak skalární smyčky. Vynutit skalární cestu lze -Dsyntak.vector=false.
+public interface BlockOps {
+
+    // dst[i] += src[i] · (gain + i·gainStep) · (level + i·levelStep) – hlas s rampou hlasitosti a obálky
+    void mixRamped(float[] dst, int dstOffset, float[] src, int srcOffset, int length,
+                   float gain, float gainStep, float level, float levelStep);
+
+    // dst[i] += src[i] – součet mixů skupin hlasů
+    void add(float[] dst, int dstOffset, float[] src, int srcOffset, int length);
+
+    // Ořezání na rozsah -1 až 1, vynásobení 32767 a převod na 16bitové vzorky
+    void toPcm16(float[] src, int srcOffset, int length, short[] dst, int dstOffset);
+
+    // Vybraná implementace (určí se jednou při načtení)
+    static BlockOps get() {
+        return Selection.INSTANCE;
+    }
+
+    static BlockOps scalar() {
+        return ScalarBlockOps.INSTANCE;
+    }
+
+    // Vektorová implementace, pokud je modul dostupný
+    static Optional<BlockOps> vector() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            // Třída se načítá reflexí, aby bez modulu nevznikla chyba linkování
+            return Optional.of((BlockOps) Class.forName("org.example.syntak.VectorBlockOps")
+                    .getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            Logger.getLogger(BlockOps.class.getName()).log(Level.WARNING, "Vector API unavailable, using scalar loops", e);
+            return Optional.empty();
+        }
+    }
+
+    // Líná inicializace výběru – holder idiom
+    final class Selection {
+        private static final BlockOps INSTANCE = Boolean.parseBoolean(System.getProperty("syntak.vector", "true"))
+                ? vector().orElse(scalar())
+                : scalar();
+
+        private Selection() {
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.syntak;
+
+import java.util.ArrayDeque; // Import pro zásobník volných bufferů
+
+// Zásoba blokových bufferů pro mezivýsledky grafu. Buffer uzlu, jehož výstup už nikdo dál nečte,
+// se vrátí a použije pro další uzel – podobně jako přidělování registrů. Používá se jen při kompilaci.
+final class BufferPool {
+
+    private final int blockSize;                             // Délka bufferu
+    private final ArrayDeque<float[]> free = new ArrayDeque<>(); // Volné buffery
+    private int allocated;                                   // Počet vytvořených bufferů
+
+    BufferPool(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    float[] acquire() {
+        float[] buffer = free.poll();
+        if (buffer == null) {
+            buffer = new float[blockSize];
+            allocated++;
+        }
+        return buffer;
+    }
+
+    void release(float[] buffer) {
+        free.push(buffer);
+    }
+
+    int allocated() {
+        return allocated;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.syntak;
+
+// Zkompilovaný graf: plochý rozvrh uzlů v topologickém pořadí s předem přidělenými buffery.
+// Zpracování bloku je jen smyčka přes pole uzlů – žádné alokace, žádné hledání v mapách.
+public final class CompiledGraph {
+
+    private final UnitGenerator[] schedule; // Uzly v pořadí zpracování
+    private final UnitGenerator output;     // Výstupní uzel
+    private final int blockSize;            // Nejdelší blok, který uzly zpracují najednou
+    private final int bufferCount;          // Počet bufferů po sdílení
+
+    CompiledGraph(UnitGenerator[] schedule, UnitGenerator output, int blockSize, int bufferCount) {
+        this.schedule = schedule;
+        this.output = output;
+        this.blockSize = blockSize;
+        this.bufferCount = bufferCount;
+    }
+
+    // Vyrenderuje length vzorků výstupu grafu do out[offset ..]; delší blok se zpracuje po částech
+    public void process(float[] out, int offset, int length) {
+        for (int done = 0; done < length; done += blockSize) {
+            int n = Math.min(blockSize, length - done);
+            for (UnitGenerator unit : schedule) {
+                unit.process(n);
+            }
+            System.arraycopy(output.output, 0, out, offset + done, n);
+        }
+    }
+
+    public void noteOn(double velocity) {
+        for (UnitGenerator unit : schedule) {
+            unit.noteOn(velocity);
+        }
+    }
+
+    public void noteOff() {
+        for (UnitGenerator unit : schedule) {
+            unit.noteOff();
+        }
+    }
+
+    public void reset() {
+        for (UnitGenerator unit : schedule) {
+            unit.reset();
+        }
+    }
+
+    public boolean isSounding() {
+        for (UnitGenerator unit : schedule) {
+            if (unit.isSounding()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean contains(UnitGenerator unit) { // Je uzel v rozvrhu (tedy vede do výstupu)?
+        for (UnitGenerator u : schedule) {
+            if (u == unit) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int size() { // Počet uzlů v rozvrhu
+        return schedule.length;
+    }
+
+    public int bufferCount() { // Počet mezivýsledkových bufferů
+        return bufferCount;
+    }
+}
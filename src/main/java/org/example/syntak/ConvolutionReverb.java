@@ -0,0 +1,163 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování bufferů
+import java.util.SplittableRandom; // Import pro deterministický šum impulsní odezvy
+
+// Konvoluční dozvuk s rovnoměrně rozdělenou impulsní odezvou (uniformly partitioned overlap-save).
+// Odezva se rozdělí na úseky po B vzorcích, každý se předem převede FFT velikosti 2B. Za každých B vzorků
+// vstupu proběhne jedna FFT, součin se všemi úseky ve frekvenční oblasti a jedna zpětná FFT – práce na blok
+// je tedy pevná a nezávisí na tom, kde v odezvě zrovna jsme. Cenou je latence B vzorků (krátký predelay).
+final class ConvolutionReverb implements Effect {
+
+    static final int PARTITION = 256; // Délka úseku B ve vzorcích
+
+    private final int bins = PARTITION + 1;   // Nezáporné frekvence reálného signálu
+    private final Fft fft = new Fft(2 * PARTITION);
+    private final int partitions;             // Počet úseků odezvy
+    private final float[][] irRe, irIm;       // Spektra úseků odezvy (sdílená, jen pro čtení)
+    private final float[][] fdlRe, fdlIm;     // Zpožďovací linka spekter vstupu (frequency-domain delay line)
+    private int fdlHead;                      // Nejnovější spektrum ve zpožďovací lince
+    private final float[] input = new float[2 * PARTITION];  // Předchozí a aktuální úsek vstupu
+    private final float[] output = new float[PARTITION];     // Mokrý signál aktuálního úseku
+    private final float[] re = new float[2 * PARTITION];     // Pracovní buffer FFT
+    private final float[] im = new float[2 * PARTITION];
+    private final float[] accRe = new float[PARTITION + 1];  // Součet součinů spekter
+    private final float[] accIm = new float[PARTITION + 1];
+    private int position;                     // Pozice v aktuálním úseku
+    private float mix;                        // Podíl efektu na konci posledního bloku (pro rampu)
+
+    // Impulsní odezva převedená do spekter po úsecích. Po vytvoření se jen čte,
+    // takže ji může sdílet libovolný počet dozvuků (i v různých vláknech).
+    static final class Response {
+        final int partitions;
+        final float[][] re, im;
+
+        Response(float[] impulse) {
+            int bins = PARTITION + 1;
+            partitions = Math.max(1, (impulse.length + PARTITION - 1) / PARTITION);
+            re = new float[partitions][bins];
+            im = new float[partitions][bins];
+            Fft fft = new Fft(2 * PARTITION);
+            float[] workRe = new float[2 * PARTITION];
+            float[] workIm = new float[2 * PARTITION];
+            for (int p = 0; p < partitions; p++) { // Úsek odezvy doplněný nulami na 2B a převedený do spektra
+                Arrays.fill(workRe, 0f);
+                Arrays.fill(workIm, 0f);
+                int from = p * PARTITION;
+                System.arraycopy(impulse, from, workRe, 0, Math.min(PARTITION, impulse.length - from));
+                fft.forward(workRe, workIm);
+                System.arraycopy(workRe, 0, re[p], 0, bins);
+                System.arraycopy(workIm, 0, im[p], 0, bins);
+            }
+        }
+    }
+
+    ConvolutionReverb(float[] impulse) {
+        this(new Response(impulse));
+    }
+
+    ConvolutionReverb(Response response) {
+        partitions = response.partitions;
+        irRe = response.re;
+        irIm = response.im;
+        fdlRe = new float[partitions][bins];
+        fdlIm = new float[partitions][bins];
+    }
+
+    // Umělá odezva sálu: šum s exponenciálním doznívání (pokles o 60 dB za decaySeconds),
+    // který s časem tmavne, protože vysoké kmitočty ve skutečném prostoru doznívají rychleji
+    static float[] syntheticImpulse(double decaySeconds, double sampleRate, long seed) {
+        int length = (int) (decaySeconds * sampleRate);
+        float[] impulse = new float[length];
+        SplittableRandom random = new SplittableRandom(seed);
+        double energy = 0;
+        double lowpass = 0;
+        for (int i = 0; i < length; i++) {
+            double t = (double) i / length;
+            double envelope = Math.exp(-6.91 * t);       // ln(1000) = 60 dB na konci odezvy
+            double smoothing = 0.9 - 0.75 * t;           // Koeficient dolní propusti klesá → tmavší konec
+            lowpass += smoothing * (random.nextDouble(-1, 1) - lowpass);
+            impulse[i] = (float) (lowpass * envelope);
+            energy += impulse[i] * impulse[i];
+        }
+        float scale = (float) (1 / Math.sqrt(Math.max(energy, 1e-12))); // Jednotková energie = podobná hlasitost jako suchý signál
+        for (int i = 0; i < length; i++) {
+            impulse[i] *= scale;
+        }
+        return impulse;
+    }
+
+    int getPartitions() {
+        return partitions;
+    }
+
+    @Override
+    public void process(float[] buffer, int offset, int length, double mix) {
+        float m = this.mix;
+        float step = ((float) mix - m) / length; // Rampa podílu přes blok
+        int i = offset;
+        int end = offset + length;
+        while (i < end) {
+            int n = Math.min(PARTITION - position, end - i); // Do konce aktuálního úseku
+            for (int k = 0; k < n; k++, i++) {
+                float dry = buffer[i];
+                input[PARTITION + position + k] = dry;
+                m += step;
+                buffer[i] = dry + m * (output[position + k] - dry);
+            }
+            position += n;
+            if (position == PARTITION) {
+                convolvePartition();
+                position = 0;
+            }
+        }
+        this.mix = (float) mix;
+    }
+
+    // Jeden krok overlap-save: FFT posledních 2B vzorků vstupu, součin se všemi úseky odezvy, zpětná FFT
+    private void convolvePartition() {
+        System.arraycopy(input, 0, re, 0, 2 * PARTITION);
+        Arrays.fill(im, 0f);
+        fft.forward(re, im);
+        fdlHead = fdlHead == 0 ? partitions - 1 : fdlHead - 1; // Nejnovější spektrum přepíše nejstarší
+        System.arraycopy(re, 0, fdlRe[fdlHead], 0, bins);
+        System.arraycopy(im, 0, fdlIm[fdlHead], 0, bins);
+
+        Arrays.fill(accRe, 0f);
+        Arrays.fill(accIm, 0f);
+        int slot = fdlHead;
+        for (int p = 0; p < partitions; p++) { // Vstup zpožděný o p úseků × p-tý úsek odezvy
+            float[] xr = fdlRe[slot], xi = fdlIm[slot], hr = irRe[p], hi = irIm[p];
+            for (int k = 0; k < bins; k++) {
+                accRe[k] += xr[k] * hr[k] - xi[k] * hi[k];
+                accIm[k] += xr[k] * hi[k] + xi[k] * hr[k];
+            }
+            slot = slot + 1 == partitions ? 0 : slot + 1;
+        }
+
+        int size = 2 * PARTITION;
+        for (int k = 0; k < bins; k++) { // Spektrum reálného signálu je hermitovsky symetrické
+            re[k] = accRe[k];
+            im[k] = accIm[k];
+        }
+        for (int k = bins; k < size; k++) {
+            re[k] = accRe[size - k];
+            im[k] = -accIm[size - k];
+        }
+        fft.inverse(re, im);
+        System.arraycopy(re, PARTITION, output, 0, PARTITION); // Platná je jen druhá polovina (overlap-save)
+        System.arraycopy(input, PARTITION, input, 0, PARTITION); // Aktuální úsek se stane předchozím
+    }
+
+    @Override
+    public void reset() {
+        for (int p = 0; p < partitions; p++) {
+            Arrays.fill(fdlRe[p], 0f);
+            Arrays.fill(fdlIm[p], 0f);
+        }
+        Arrays.fill(input, 0f);
+        Arrays.fill(output, 0f);
+        position = 0;
+        mix = 0;
+    }
+}
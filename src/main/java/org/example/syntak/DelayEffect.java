@@ -0,0 +1,59 @@
+package org.example.syntak;
+
+import java.nio.ByteBuffer; // Import pro alokaci mimo haldu
+import java.nio.ByteOrder; // Import pro nativní pořadí bajtů
+import java.nio.FloatBuffer; // Import pro kruhový buffer vzorků
+
+// Zpětnovazební delay s kruhovým bufferem mimo haldu (GC ho neprochází ani nepřesouvá).
+// Buffer se alokuje jednou na maximální délku; změna času zpoždění jen posune čtecí pozici.
+final class DelayEffect implements Effect {
+
+    private final FloatBuffer line; // Kruhový buffer (délka = mocnina dvou)
+    private final int mask;         // Maska pro zabalení indexu
+    private final double sampleRate; // Vzorkovací frekvence
+    private int write;              // Pozice zápisu
+    private volatile int delay;     // Zpoždění ve vzorcích (nastavuje jiné vlákno)
+    private volatile float feedback = 0.35f; // Zpětná vazba 0.0 až 0.95
+    private float mix;              // Podíl efektu na konci posledního bloku (pro rampu)
+
+    DelayEffect(double maxSeconds, double sampleRate) {
+        int capacity = Integer.highestOneBit((int) Math.ceil(maxSeconds * sampleRate) + 1) << 1; // Zaokrouhlení nahoru na mocninu dvou
+        line = ByteBuffer.allocateDirect(capacity * Float.BYTES).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        mask = capacity - 1;
+        this.sampleRate = sampleRate;
+        setTime(0.35);
+    }
+
+    void setTime(double seconds) {
+        delay = (int) Math.max(1, Math.min(Math.round(seconds * sampleRate), mask));
+    }
+
+    void setFeedback(double feedback) {
+        this.feedback = (float) Math.max(0, Math.min(feedback, 0.95)); // Pod 1, aby ozvěny vždy odezněly
+    }
+
+    @Override
+    public void process(float[] buffer, int offset, int length, double mix) {
+        float m = this.mix;
+        float step = ((float) mix - m) / length; // Rampa podílu přes blok, aby změna knobu necvakala
+        int delay = this.delay;          // Jedno čtení na blok
+        float feedback = this.feedback;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            float dry = buffer[i];
+            float echo = line.get((write - delay) & mask); // Zpožděný vzorek
+            line.put(write, dry + feedback * echo);        // Zápis vstupu se zpětnou vazbou
+            write = (write + 1) & mask;
+            m += step;
+            buffer[i] = dry + m * (echo - dry);            // Přechod suchý ↔ mokrý
+        }
+        this.mix = (float) mix;
+    }
+
+    @Override
+    public void reset() {
+        for (int i = 0; i <= mask; i++) {
+            line.put(i, 0f);
+        }
+        mix = 0;
+    }
+}
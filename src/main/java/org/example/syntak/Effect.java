@@ -0,0 +1,11 @@
+package org.example.syntak;
+
+// Efekt na sběrnici za mixem hlasů – zpracovává blok na místě
+interface Effect {
+
+    // Zpracování buffer[offset .. offset + length); mix = podíl efektu 0.0 (suchý) až 1.0 (jen efekt)
+    void process(float[] buffer, int offset, int length, double mix);
+
+    // Vymazání vnitřního stavu (dozvuky, ozvěny)
+    void reset();
+}
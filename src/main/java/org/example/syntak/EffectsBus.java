@@ -0,0 +1,159 @@
+package org.example.syntak;
+
+import java.util.Map; // Import pro mezipaměť odezev
+import java.util.concurrent.ConcurrentHashMap; // Import pro mezipaměť sdílenou vlákny renderu
+
+// Sběrnice efektů za mixem hlasů: delay → dozvuk. Každý efekt má vlastní podíl (wet/dry);
+// bypass stáhne oba podíly rampou na nulu. Efekt s nulovým podílem se vůbec nepočítá
+// a při opětovném zapnutí začne s čistým stavem. Buffery efektů vznikají mimo audio vlákno až tehdy,
+// když je někdo potřebuje (prepare…), takže engine bez efektů (např. dávka offline renderů) za ně nic neplatí.
+// Audio vlákno efekty jen převezme přes volatile odkaz; dokud efekt neexistuje, počítá se jako vypnutý.
+final class EffectsBus {
+
+    static final double MAX_DELAY_SECONDS = 2.0;    // Délka bufferu delaye
+    static final double REVERB_DECAY_SECONDS = 2.5; // Doznívání vestavěné odezvy
+    private static final int WARMUP_BLOCKS = 64;    // Bloky ticha pro zahřátí JIT před prvním přehráváním
+
+    private static volatile boolean warmedUp;       // JIT je společný celé JVM, zahřívá se jen jednou
+
+    // Spektra vestavěné odezvy podle vzorkovací frekvence, sdílená všemi sběrnicemi
+    private static final Map<Double, ConvolutionReverb.Response> RESPONSES = new ConcurrentHashMap<>();
+
+    private volatile DelayEffect delay;        // null = zatím nevytvořený
+    private volatile ConvolutionReverb reverb; // null = zatím nevytvořený
+    private volatile double sampleRate;        // Frekvence, pro kterou se efekty vytvoří
+    private volatile double delaySeconds = 0.35; // Nastavení delaye (zachová se při změně frekvence)
+    private volatile double delayFeedback = 0.35;
+    private volatile boolean bypass;  // Zapíná UI vlákno, čte audio vlákno
+    private boolean delayRunning;     // Delay se v minulém bloku počítal
+    private boolean reverbRunning;    // Dozvuk se v minulém bloku počítal
+    private boolean delayUsed;        // Buffer delaye obsahuje staré ozvěny (nový nebo vynulovaný je čistý)
+    private boolean reverbUsed;       // Zpožďovací linka dozvuku obsahuje starý signál
+
+    EffectsBus(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    // Efekty, které už existovaly, se vytvoří znovu pro novou frekvenci; volá se jen mimo render
+    synchronized void setSampleRate(double sampleRate) {
+        if (sampleRate == this.sampleRate) {
+            return;
+        }
+        boolean hadDelay = delay != null;
+        boolean hadReverb = reverb != null;
+        this.sampleRate = sampleRate;
+        delay = null;
+        reverb = null;
+        delayRunning = false;
+        reverbRunning = false;
+        delayUsed = false;
+        reverbUsed = false;
+        if (hadDelay) {
+            prepareDelay();
+        }
+        if (hadReverb) {
+            prepareReverb();
+        }
+    }
+
+    // Vytvoření obou efektů předem (před spuštěním výstupu), aby je audio vlákno nikdy nemuselo alokovat.
+    // Poprvé v JVM jimi navíc projde ticho: první zapnutí efektu by jinak běželo v interpretu (desítky ms).
+    void prepare() {
+        prepareDelay();
+        prepareReverb();
+        if (!warmedUp) {
+            warmUp(new DelayEffect(MAX_DELAY_SECONDS, sampleRate));
+            warmUp(new ConvolutionReverb(RESPONSES.get(sampleRate)));
+            warmedUp = true;
+        }
+    }
+
+    // Vytvoření delaye, pokud ještě neexistuje; jinak jen čtení volatile odkazu (smí i audio vlákno)
+    void prepareDelay() {
+        if (delay == null) {
+            synchronized (this) {
+                if (delay == null) {
+                    delay = new DelayEffect(MAX_DELAY_SECONDS, sampleRate);
+                }
+            }
+        }
+    }
+
+    // Vytvoření dozvuku se sdílenými spektry odezvy, pokud ještě neexistuje
+    void prepareReverb() {
+        if (reverb == null) {
+            synchronized (this) {
+                if (reverb == null) {
+                    reverb = new ConvolutionReverb(RESPONSES.computeIfAbsent(sampleRate, rate ->
+                            new ConvolutionReverb.Response(ConvolutionReverb.syntheticImpulse(REVERB_DECAY_SECONDS, rate, 1))));
+                }
+            }
+        }
+    }
+
+    void setBypass(boolean bypass) {
+        this.bypass = bypass;
+    }
+
+    boolean isBypass() {
+        return bypass;
+    }
+
+    void setDelay(double seconds, double feedback) { // Převezme se na začátku dalšího bloku delaye
+        delaySeconds = seconds;
+        delayFeedback = feedback;
+    }
+
+    // Zpracování bloku na místě; podíly jsou cílové hodnoty na konci bloku
+    void process(float[] buffer, int offset, int length, double delayMix, double reverbMix) {
+        if (bypass) {
+            delayMix = 0;
+            reverbMix = 0;
+        }
+        DelayEffect delay = this.delay; // Jediné čtení odkazů na blok
+        ConvolutionReverb reverb = this.reverb;
+        if (delay != null && (delayMix > 0 || delayRunning)) {
+            delay.setTime(delaySeconds);
+            delay.setFeedback(delayFeedback);
+            delayRunning = run(delay, delayRunning, delayUsed, buffer, offset, length, delayMix);
+            delayUsed = true;
+        }
+        if (reverb != null && (reverbMix > 0 || reverbRunning)) {
+            reverbRunning = run(reverb, reverbRunning, reverbUsed, buffer, offset, length, reverbMix);
+            reverbUsed = true;
+        }
+    }
+
+    // Průchod ticha samostatnou instancí efektu, takže ostrý efekt zůstane čistý
+    private static void warmUp(Effect effect) {
+        float[] silence = new float[ConvolutionReverb.PARTITION];
+        for (int i = 0; i < WARMUP_BLOCKS; i++) {
+            effect.process(silence, 0, silence.length, 0);
+        }
+        effect.reset();
+    }
+
+    // Efekt se počítá, dokud jeho podíl nedojede rampou na nulu
+    private static boolean run(Effect effect, boolean running, boolean used, float[] buffer, int offset, int length, double mix) {
+        if (!running && used) {
+            effect.reset(); // Zapnutí bez zbytků starých ozvěn; čerstvý efekt nulovat netřeba
+        }
+        effect.process(buffer, offset, length, mix);
+        return mix > 0;
+    }
+
+    void reset() {
+        DelayEffect delay = this.delay;
+        ConvolutionReverb reverb = this.reverb;
+        if (delay != null) {
+            delay.reset();
+        }
+        if (reverb != null) {
+            reverb.reset();
+        }
+        delayRunning = false;
+        reverbRunning = false;
+        delayUsed = false;
+        reverbUsed = false;
+    }
+}
@@ -0,0 +1,152 @@
+package org.example.syntak;
+
+// Stavová obálka ADSR, která postupuje přírůstkově od okamžiku stisku noty.
+// Přírůstky jednotlivých fází se přepočítají jen při změně parametrů; úroveň se počítá
+// v řídicí frekvenci (každých CONTROL_PERIOD vzorků) a hlas mezi body lineárně interpoluje.
+final class Envelope {
+
+    static final int CONTROL_PERIOD = 32; // Délka řídicího úseku ve vzorcích
+
+    // Fáze obálky
+    private static final int IDLE = 0, ATTACK = 1, DECAY = 2, SUSTAIN = 3, RELEASE = 4;
+
+    private int stage = IDLE;   // Aktuální fáze
+    private double level;       // Úroveň na konci posledního řídicího úseku
+
+    // Poslední parametry, ze kterých se počítaly přírůstky
+    private double attack = -1, decay = -1, sustain = -1, release = -1, sampleRate = -1;
+    private boolean fixed;      // true = testovací režim, úroveň je pevně 1.0 po dobu stisku
+
+    private double attackStep;  // Přírůstek za vzorek při nástupu
+    private double decayStep;   // Pokles za vzorek z 1.0 na sustain
+    private double releaseStep; // Pokles za vzorek z úrovně při uvolnění na 0
+    private double releaseStartLevel; // Úroveň v okamžiku uvolnění
+
+    // Převzetí parametrů ze snímku hlasu
+    void configure(VoiceParameters p) {
+        configure(p.attack, p.decay, p.sustain, p.release, p.sampleRate, p.testEnvelope);
+    }
+
+    // Převzetí parametrů; přírůstky se přepočítají jen pokud se něco změnilo
+    void configure(double attack, double decay, double sustain, double release, double sampleRate, boolean fixed) {
+        this.fixed = fixed;
+        if (attack == this.attack && decay == this.decay && sustain == this.sustain
+                && release == this.release && sampleRate == this.sampleRate) {
+            return;
+        }
+        this.attack = attack;
+        this.decay = decay;
+        this.sustain = sustain;
+        this.release = release;
+        this.sampleRate = sampleRate;
+        attackStep = step(1, attack);        // Nulový čas = nekonečný přírůstek = okamžitý přechod
+        decayStep = step(1 - sustain, decay);
+        releaseStep = step(releaseStartLevel, release);
+    }
+
+    // Stisk – nástup pokračuje z aktuální úrovně, takže opakovaný úder ani krádež hlasu neluskne
+    void gateOn() {
+        stage = ATTACK;
+    }
+
+    // Uvolnění – lineární pokles z aktuální úrovně na nulu za dobu release
+    void gateOff() {
+        if (stage != IDLE && stage != RELEASE) {
+            releaseStartLevel = level;
+            releaseStep = step(level, release);
+            stage = RELEASE;
+        }
+    }
+
+    void reset() {
+        stage = IDLE;
+        level = 0;
+    }
+
+    boolean isActive() {
+        return stage != IDLE;
+    }
+
+    boolean isReleased() {
+        return stage == RELEASE;
+    }
+
+    double level() {
+        return level;
+    }
+
+    // Posun o n vzorků (nejvýše jeden řídicí úsek); přechody mezi fázemi se počítají přesně
+    double advance(int n) {
+        if (fixed) { // Testovací režim
+            if (stage == RELEASE) {
+                reset();
+            } else if (stage != IDLE) {
+                stage = SUSTAIN;
+                level = 1.0;
+            }
+            return level;
+        }
+        while (n > 0) {
+            switch (stage) {
+                case ATTACK -> {
+                    int k = samplesUntil(1 - level, attackStep); // Vzorky do vrcholu
+                    if (k > n) {
+                        level += attackStep * n;
+                        n = 0;
+                    } else {
+                        level = 1.0;
+                        n -= k;
+                        stage = DECAY;
+                    }
+                }
+                case DECAY -> {
+                    int k = samplesUntil(level - sustain, decayStep); // Vzorky do úrovně sustain
+                    if (k > n) {
+                        level -= decayStep * n;
+                        n = 0;
+                    } else {
+                        level = sustain;
+                        n -= k;
+                        stage = SUSTAIN;
+                    }
+                }
+                case SUSTAIN -> {
+                    level = sustain; // Vyhlazený parametr sustain se projeví hned
+                    n = 0;
+                }
+                case RELEASE -> {
+                    int k = samplesUntil(level, releaseStep); // Vzorky do ticha
+                    if (k > n) {
+                        level -= releaseStep * n;
+                        n = 0;
+                    } else {
+                        reset();
+                        n = 0;
+                    }
+                }
+                default -> n = 0;
+            }
+        }
+        return level;
+    }
+
+    // Přírůstek za vzorek, který urazí distance za seconds; nulová vzdálenost = 0 (fáze hned skončí),
+    // nulový čas = nekonečno (okamžitý přechod). Nikdy 0/0 = NaN.
+    private double step(double distance, double seconds) {
+        if (distance <= 0) {
+            return 0;
+        }
+        return distance / (seconds * sampleRate);
+    }
+
+    // Počet vzorků, za které přírůstek step urazí vzdálenost distance (0 = přechod hned)
+    private static int samplesUntil(double distance, double step) {
+        if (distance <= 0 || step == Double.POSITIVE_INFINITY) {
+            return 0;
+        }
+        if (!(step > 0)) {
+            return Integer.MAX_VALUE; // Nulový přírůstek (např. sustain = 1 v decay) – fáze nekončí sama
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.ceil(distance / step));
+    }
+}
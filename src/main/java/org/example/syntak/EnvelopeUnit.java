@@ -0,0 +1,65 @@
+package org.example.syntak;
+
+// Obálka ADSR jako řídicí signál grafu; úroveň se počítá v řídicí frekvenci a mezi body lineárně interpoluje
+public final class EnvelopeUnit extends UnitGenerator {
+
+    private final Envelope envelope; // Stav obálky (může být sdílený s hlasem)
+    private double attack = 0.1, decay = 0.1, sustain = 1.0, release = 0.1; // Časy v sekundách, úroveň sustain
+    private boolean fixed;           // Testovací režim – úroveň 1.0 po dobu stisku
+    private final double sampleRate; // Vzorkovací frekvence
+
+    public EnvelopeUnit(double sampleRate) {
+        this(new Envelope(), sampleRate);
+    }
+
+    EnvelopeUnit(Envelope envelope, double sampleRate) {
+        super(0);
+        this.envelope = envelope;
+        this.sampleRate = sampleRate;
+    }
+
+    public void setTimes(double attack, double decay, double sustain, double release) {
+        this.attack = attack;
+        this.decay = decay;
+        this.sustain = sustain;
+        this.release = release;
+    }
+
+    public void setFixed(boolean fixed) {
+        this.fixed = fixed;
+    }
+
+    @Override
+    protected void process(int length) {
+        envelope.configure(attack, decay, sustain, release, sampleRate, fixed); // Přepočet jen při změně
+        for (int start = 0; start < length; start += Envelope.CONTROL_PERIOD) {
+            int n = Math.min(Envelope.CONTROL_PERIOD, length - start);
+            double level = envelope.level();
+            double step = (envelope.advance(n) - level) / n;
+            for (int i = start, end = start + n; i < end; i++) {
+                output[i] = (float) level;
+                level += step;
+            }
+        }
+    }
+
+    @Override
+    protected void noteOn(double velocity) {
+        envelope.gateOn();
+    }
+
+    @Override
+    protected void noteOff() {
+        envelope.gateOff();
+    }
+
+    @Override
+    protected void reset() {
+        envelope.reset();
+    }
+
+    @Override
+    protected boolean isSounding() {
+        return envelope.isActive();
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.syntak;
+
+// Radix-2 FFT na místě nad oddělenými poli reálných a imaginárních složek.
+// Tabulky twiddle faktorů a bitové reverze se spočítají jednou v konstruktoru, transformace nic nealokuje.
+final class Fft {
+
+    private final int size;      // Délka transformace (mocnina dvou)
+    private final float[] cos;   // cos(2πk/N) pro k < N/2
+    private final float[] sin;   // sin(2πk/N) pro k < N/2
+    private final int[] reverse; // Index po bitové reverzi
+
+    Fft(int size) {
+        if (size < 2 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException("Velikost FFT musí být mocnina dvou: " + size);
+        }
+        this.size = size;
+        cos = new float[size / 2];
+        sin = new float[size / 2];
+        for (int k = 0; k < size / 2; k++) {
+            cos[k] = (float) Math.cos(2 * Math.PI * k / size);
+            sin[k] = (float) Math.sin(2 * Math.PI * k / size);
+        }
+        reverse = new int[size];
+        int bits = Integer.numberOfTrailingZeros(size);
+        for (int i = 0; i < size; i++) {
+            reverse[i] = Integer.reverse(i) >>> (32 - bits);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Dopředná transformace (exponent -i)
+    void forward(float[] re, float[] im) {
+        transform(re, im, -1f);
+    }
+
+    // Zpětná transformace včetně normalizace 1/N
+    void inverse(float[] re, float[] im) {
+        transform(re, im, 1f);
+        float scale = 1f / size;
+        for (int i = 0; i < size; i++) {
+            re[i] *= scale;
+            im[i] *= scale;
+        }
+    }
+
+    private void transform(float[] re, float[] im, float sign) {
+        for (int i = 0; i < size; i++) { // Přeskládání podle bitové reverze
+            int j = reverse[i];
+            if (j > i) {
+                float t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+        for (int half = 1; half < size; half <<= 1) { // Motýlky po stupních
+            int stride = size / (2 * half); // Krok v tabulce twiddle faktorů
+            for (int start = 0; start < size; start += 2 * half) {
+                for (int k = 0; k < half; k++) {
+                    float wr = cos[k * stride];
+                    float wi = sign * sin[k * stride];
+                    int a = start + k;
+                    int b = a + half;
+                    float tr = re[b] * wr - im[b] * wi;
+                    float ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+}
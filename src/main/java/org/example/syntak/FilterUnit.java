@@ -0,0 +1,68 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování výstupu
+
+// Rezonanční dolní propust (stavově proměnný filtr v topologii TPT). Vstup 0 = signál,
+// vstup 1 = modulace kmitočtu v oktávách. Koeficienty se přepočítají jednou za řídicí úsek.
+public final class FilterUnit extends UnitGenerator {
+
+    public static final int AUDIO = 0;  // Vstup signálu
+    public static final int CUTOFF = 1; // Vstup modulace kmitočtu
+
+    private double cutoff;             // Mezní kmitočet v Hz (od Nyquistovy frekvence výš filtr nepůsobí)
+    private double resonance;          // Rezonance 0.0 až 1.0
+    private final double sampleRate;   // Vzorkovací frekvence
+    private double ic1, ic2;           // Stav integrátorů
+
+    public FilterUnit(double sampleRate) {
+        super(2);
+        this.sampleRate = sampleRate;
+        this.cutoff = sampleRate / 2; // Výchozí stav = zcela otevřený filtr
+    }
+
+    public void setCutoff(double cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    public void setResonance(double resonance) {
+        this.resonance = Math.max(0, Math.min(resonance, 1));
+    }
+
+    @Override
+    protected void process(int length) {
+        float[] in = inputs[AUDIO];
+        float[] mod = inputs[CUTOFF];
+        if (in == null) {
+            Arrays.fill(output, 0, length, 0f);
+            return;
+        }
+        if (mod == null && cutoff >= sampleRate / 2) {
+            System.arraycopy(in, 0, output, 0, length); // Otevřený filtr signál jen propustí
+            return;
+        }
+        double k = 2 - 2 * resonance * 0.98; // Tlumení (nikdy nulové, aby filtr neoscilovaly samy)
+        for (int start = 0; start < length; start += Envelope.CONTROL_PERIOD) {
+            int n = Math.min(Envelope.CONTROL_PERIOD, length - start);
+            double fc = mod == null ? cutoff : cutoff * Math.pow(2, mod[start]);
+            fc = Math.max(10, Math.min(fc, sampleRate * 0.49)); // Pod Nyquistovou frekvencí
+            double g = Math.tan(Math.PI * fc / sampleRate);
+            double a1 = 1 / (1 + g * (g + k));
+            double a2 = g * a1;
+            double a3 = g * a2;
+            for (int i = start, end = start + n; i < end; i++) {
+                double v3 = in[i] - ic2;
+                double v1 = a1 * ic1 + a2 * v3;
+                double v2 = ic2 + a2 * ic1 + a3 * v3;
+                ic1 = 2 * v1 - ic1;
+                ic2 = 2 * v2 - ic2;
+                output[i] = (float) v2; // Výstup dolní propusti
+            }
+        }
+    }
+
+    @Override
+    protected void reset() {
+        ic1 = 0;
+        ic2 = 0;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování výstupu
+
+// Nízkofrekvenční sínusový oscilátor pro modulaci; výstup je v rozsahu ±depth
+public final class LfoUnit extends UnitGenerator {
+
+    private double rate = 5.0;       // Frekvence v Hz
+    private double depth;            // Amplituda výstupu (0 = vypnuto)
+    private final double sampleRate; // Vzorkovací frekvence
+    private int phase;               // Fáze (32bitová fixní řádová čárka)
+
+    public LfoUnit(double sampleRate) {
+        super(0);
+        this.sampleRate = sampleRate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public void setDepth(double depth) {
+        this.depth = depth;
+    }
+
+    @Override
+    protected void process(int length) {
+        int increment = Wavetable.increment(rate, sampleRate);
+        if (depth == 0) {
+            Arrays.fill(output, 0, length, 0f);
+            phase += increment * length; // Fáze běží dál
+            return;
+        }
+        float[] table = Wavetable.SINE.forIncrement(increment);
+        float amplitude = (float) depth;
+        for (int i = 0; i < length; i++) {
+            output[i] = amplitude * Wavetable.lookup(table, phase);
+            phase += increment;
+        }
+    }
+
+    @Override
+    protected void reset() {
+        phase = 0;
+    }
+}
@@ -8,6 +8,8 @@ import java.io.IOException; // Import třídy IOException pro zachycení výjime
 import java.util.Objects; // Import třídy Objects pro práci s objekty
 
 public class MainApp extends Application { // Hlavní třída aplikace, která dědí od třídy Application
+    private SynthController controller; // Kontrolér UI, drží zvukový engine
+
     @Override
     public void start(Stage primaryStage) throws IOException { // Metoda start, která se volá při spuštění aplikace
         // Načtení FXML souboru pro uživatelské rozhraní
@@ -15,6 +17,7 @@ public class MainApp extends Application { // Hlavní třída aplikace, která d
 
         // Vytvoření scény s načteným uživatelským rozhraním a specifikací rozměrů
         Scene scene = new Scene(fxmlLoader.load(), 1000, 600);
+        controller = fxmlLoader.getController(); // Uložení kontroléru kvůli uvolnění zvukové linky při ukončení
 
         // Načtení CSS souboru pro stylizaci aplikace
         scene.getStylesheets().add(Objects.requireNonNull(getClass().getResource("styles.css")).toExternalForm());
@@ -27,6 +30,13 @@ public class MainApp extends Application { // Hlavní třída aplikace, která d
         primaryStage.show();
     }
 
+    @Override
+    public void stop() { // Metoda volaná při ukončení aplikace
+        if (controller != null) {
+            controller.shutdown(); // Zastavení render vlákna a zavření zvukové linky
+        }
+    }
+
     public static void main(String[] args) { // Hlavní metoda pro spuštění aplikace
         launch(); // Volání metody launch pro zahájení aplikace
     }
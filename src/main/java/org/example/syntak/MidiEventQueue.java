@@ -0,0 +1,72 @@
+package org.example.syntak;
+
+import java.util.concurrent.atomic.AtomicLong; // Import pro pozice zápisu a čtení
+import java.util.concurrent.atomic.AtomicLongArray; // Import pro pořadová čísla slotů
+
+// Omezená bezzámková fronta MIDI událostí s časovou značkou: více zapisovatelů (vlákna MIDI zařízení),
+// jeden čtenář (audio vlákno). Sloty jsou předalokované, událost je zabalená do jednoho int
+// (status | data1 << 8 | data2 << 16), takže zápis ani čtení nic nealokuje a nikdy neblokuje.
+final class MidiEventQueue {
+
+    private final int mask;               // Maska indexu (kapacita je mocnina dvou)
+    private final long[] times;           // Časové značky v ns (System.nanoTime nebo hodiny enginu)
+    private final int[] messages;         // Zabalené krátké zprávy
+    private final AtomicLongArray sequence; // Pořadové číslo slotu – určuje, kdo do něj smí
+    private final AtomicLong tail = new AtomicLong(); // Další pozice zápisu
+    private long head;                    // Další pozice čtení (jen audio vlákno)
+
+    MidiEventQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1; // Zaokrouhlení nahoru na mocninu dvou
+        mask = size - 1;
+        times = new long[size];
+        messages = new int[size];
+        sequence = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequence.set(i, i);
+        }
+    }
+
+    static int pack(int status, int data1, int data2) {
+        return (status & 0xFF) | (data1 & 0x7F) << 8 | (data2 & 0x7F) << 16;
+    }
+
+    // Vložení události (libovolné vlákno); false = fronta je plná a událost se zahodí
+    boolean offer(long time, int message) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long available = sequence.get((int) (position & mask)) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break; // Slot je náš
+                }
+            } else if (available < 0) {
+                return false; // Čtenář slot ještě neuvolnil
+            }
+        }
+        int slot = (int) (position & mask);
+        times[slot] = time;
+        messages[slot] = message;
+        sequence.set(slot, position + 1); // Zveřejnění až po zápisu dat
+        return true;
+    }
+
+    // Časová značka nejstarší události, Long.MAX_VALUE pokud je fronta prázdná (jen audio vlákno)
+    long peekTime() {
+        int slot = (int) (head & mask);
+        return sequence.get(slot) == head + 1 ? times[slot] : Long.MAX_VALUE;
+    }
+
+    // Odebrání nejstarší události; volat jen po peekTime() různém od Long.MAX_VALUE
+    int take() {
+        int slot = (int) (head & mask);
+        int message = messages[slot];
+        sequence.set(slot, head + mask + 1); // Slot je volný pro zápis o kolo dál
+        head++;
+        return message;
+    }
+
+    int size() { // Přibližný počet čekajících událostí
+        return (int) Math.max(0, tail.get() - head);
+    }
+}
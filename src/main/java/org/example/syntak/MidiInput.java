@@ -0,0 +1,133 @@
+package org.example.syntak;
+
+import javax.sound.midi.MidiDevice; // Import pro vstupní MIDI zařízení
+import javax.sound.midi.MidiMessage; // Import pro přijaté zprávy
+import javax.sound.midi.MidiSystem; // Import pro výčet zařízení
+import javax.sound.midi.MidiUnavailableException; // Import pro chyby při otevření zařízení
+import javax.sound.midi.Receiver; // Import pro příjemce zpráv
+import javax.sound.midi.Sequencer; // Import pro vyřazení sekvencerů z výčtu vstupů
+import javax.sound.midi.ShortMessage; // Import pro krátké zprávy (note, CC, pitch bend)
+import javax.sound.midi.Synthesizer; // Import pro vyřazení syntezátorů z výčtu vstupů
+import java.util.ArrayList; // Import pro seznam otevřených zařízení
+import java.util.List; // Import pro seznamy zařízení
+import java.util.concurrent.atomic.AtomicLong; // Import pro počítadlo zahozených zpráv
+import java.util.logging.Level; // Import pro úroveň logování
+import java.util.logging.Logger; // Import pro logování
+
+// MIDI vstup enginu: příjemce zpráv, který je s časovou značkou vloží do bezzámkové fronty enginu.
+// Lze ho připojit k hardwarovým zařízením, k lokálnímu Sequenceru (sequencer.getTransmitter().setReceiver(input))
+// nebo mu zprávy posílat přímo (syntetický vstup v testech).
+public class MidiInput implements Receiver {
+
+    private final SynthEngine engine;               // Cíl událostí
+    private final List<MidiDevice> devices = new ArrayList<>(); // Otevřená zařízení
+    private final AtomicLong dropped = new AtomicLong(); // Zprávy zahozené kvůli plné frontě
+    private final DeviceClock directClock = new DeviceClock(); // Hodiny pro zprávy poslané přímo (sequencer, testy)
+
+    private static final Logger logger = Logger.getLogger(MidiInput.class.getName()); // Logger pro záznam událostí
+
+    public MidiInput(SynthEngine engine) {
+        this.engine = engine;
+    }
+
+    // Všechna zařízení, která posílají MIDI (mají transmitter) a nejsou sekvencerem ani syntezátorem
+    public static List<MidiDevice.Info> inputDevices() {
+        List<MidiDevice.Info> inputs = new ArrayList<>();
+        for (MidiDevice.Info info : MidiSystem.getMidiDeviceInfo()) {
+            try {
+                MidiDevice device = MidiSystem.getMidiDevice(info);
+                if (device.getMaxTransmitters() != 0
+                        && !(device instanceof Sequencer)
+                        && !(device instanceof Synthesizer)) {
+                    inputs.add(info);
+                }
+            } catch (MidiUnavailableException e) {
+                logger.log(Level.FINE, "MIDI device " + info + " unavailable", e);
+            }
+        }
+        return inputs;
+    }
+
+    // Otevření zařízení a připojení jeho výstupu k tomuto vstupu
+    public synchronized void connect(MidiDevice.Info info) throws MidiUnavailableException {
+        MidiDevice device = MidiSystem.getMidiDevice(info);
+        device.open();
+        try {
+            DeviceClock deviceClock = new DeviceClock(); // Každé zařízení má vlastní časovou základnu
+            device.getTransmitter().setReceiver(new Receiver() {
+                @Override
+                public void send(MidiMessage message, long timeStamp) {
+                    receive(message, deviceClock.toEngineTime(timeStamp));
+                }
+
+                @Override
+                public void close() {
+                }
+            });
+        } catch (MidiUnavailableException e) {
+            device.close();
+            throw e;
+        }
+        devices.add(device);
+    }
+
+    // Připojení všech dostupných vstupů; vrací počet připojených zařízení
+    public synchronized int connectAll() {
+        int connected = 0;
+        for (MidiDevice.Info info : inputDevices()) {
+            try {
+                connect(info);
+                connected++;
+            } catch (MidiUnavailableException e) {
+                logger.log(Level.WARNING, "MIDI input " + info.getName() + " could not be opened", e);
+            }
+        }
+        return connected;
+    }
+
+    public long getDroppedMessages() {
+        return dropped.get();
+    }
+
+    // Příjem zprávy (vlákno zařízení nebo sekvenceru); timeStamp v µs podle hodin zařízení, -1 = neznámý
+    @Override
+    public void send(MidiMessage message, long timeStamp) {
+        receive(message, directClock.toEngineTime(timeStamp));
+    }
+
+    private void receive(MidiMessage message, long time) {
+        if (!(message instanceof ShortMessage sm)) {
+            return; // SysEx a meta zprávy engine nepoužívá
+        }
+        if (!engine.postMidi(time, sm.getStatus(), sm.getData1(), sm.getData2())) {
+            dropped.incrementAndGet(); // Render nestíhá odebírat – zpráva se zahodí, vstup neblokuje
+        }
+    }
+
+    // Převod času zařízení na hodiny enginu. Posun se odhaduje jako nejmenší rozdíl mezi příchodem
+    // a časovou značkou – ten odpovídá zprávě doručené s nejmenším zpožděním; bez značky se použije čas příchodu.
+    private final class DeviceClock {
+        private volatile long offsetMicros = Long.MAX_VALUE; // Posun času zařízení vůči hodinám enginu
+
+        long toEngineTime(long deviceMicros) {
+            long now = engine.getClockNanos();
+            if (deviceMicros < 0) {
+                return now;
+            }
+            long offset = now / 1000 - deviceMicros;
+            if (offset < offsetMicros) {
+                offsetMicros = offset; // Zařízení doručuje z jednoho vlákna – přepis bez CAS stačí
+            }
+            return (deviceMicros + offsetMicros) * 1000;
+        }
+    }
+
+    // Odpojení a zavření všech zařízení
+    @Override
+    public synchronized void close() {
+        for (MidiDevice device : devices) {
+            device.close();
+        }
+        devices.clear();
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování výstupu
+
+// Směšovač – součet vstupů s vlastními zesíleními; nezapojené vstupy se přeskočí
+public final class MixerUnit extends UnitGenerator {
+
+    private final float[] gains; // Zesílení jednotlivých vstupů
+    private final BlockOps ops = BlockOps.get(); // Blokové operace (Vector API nebo skalární)
+
+    public MixerUnit(int inputCount) {
+        super(inputCount);
+        gains = new float[inputCount];
+        Arrays.fill(gains, 1f);
+    }
+
+    public void setGain(int input, double gain) {
+        gains[input] = (float) gain;
+    }
+
+    @Override
+    protected void process(int length) {
+        Arrays.fill(output, 0, length, 0f);
+        for (int j = 0; j < inputs.length; j++) {
+            if (inputs[j] != null && gains[j] != 0) {
+                ops.mixRamped(output, 0, inputs[j], 0, length, gains[j], 0f, 1f, 0f); // Přičtení se zesílením
+            }
+        }
+    }
+}
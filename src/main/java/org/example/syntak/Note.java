@@ -0,0 +1,15 @@
+package org.example.syntak;
+
+// Nota v časové ose offline renderu – MIDI číslo, začátek a délka v sekundách, síla úhozu 0 až 1
+public record Note(int note, double start, double duration, double velocity) {
+
+    public Note {
+        if (start < 0 || duration < 0) {
+            throw new IllegalArgumentException("Začátek i délka noty musí být nezáporné: " + start + ", " + duration);
+        }
+    }
+
+    public double end() { // Okamžik uvolnění noty
+        return start + duration;
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.syntak;
+
+import java.io.IOException; // Import pro chyby zápisu do cíle
+import java.util.ArrayList; // Import pro seznam událostí
+import java.util.Comparator; // Import pro řazení událostí podle času
+import java.util.List; // Import pro časovou osu not
+import java.util.concurrent.ForkJoinPool; // Import pro pool paralelního renderu hlasů
+
+// Render bez zvukového zařízení a bez JavaFX – tak rychle, jak stačí procesor.
+// Noty se spouštějí přesně na svém vzorku: blok se v místě události rozdělí.
+public class OfflineRenderer {
+
+    public static final int BLOCK_SIZE = 4096; // Velikost bloku ve vzorcích
+    private static final double TAIL_SECONDS = 0.1; // Rezerva za doznělým release
+
+    private final SynthEngine engine; // Engine bez otevřené linky
+    private final Patch patch; // Nastavení zvuku
+    private final float[] block = new float[BLOCK_SIZE]; // Předalokovaný blok
+
+    // Sledování průběhu renderu – volá se po každém zapsaném bloku; výjimka z update() render přeruší
+    public interface Progress {
+        Progress NONE = (done, total) -> {
+        };
+
+        void update(long samplesDone, long samplesTotal);
+    }
+
+    public OfflineRenderer(Patch patch) {
+        this(patch, SynthEngine.DEFAULT_MAX_VOICES);
+    }
+
+    public OfflineRenderer(Patch patch, int maxVoices) {
+        this(patch, maxVoices, ForkJoinPool.commonPool());
+    }
+
+    // Hlasy se při velké polyfonii renderují paralelně v zadaném poolu
+    public OfflineRenderer(Patch patch, int maxVoices, ForkJoinPool voicePool) {
+        this.patch = patch;
+        engine = new SynthEngine(maxVoices, voicePool);
+        patch.applyTo(engine);
+    }
+
+    public SynthEngine getEngine() {
+        return engine;
+    }
+
+    // Délka renderu tak, aby doznělo uvolnění poslední noty
+    public double defaultLength(List<Note> notes) {
+        double end = 0;
+        for (Note n : notes) {
+            end = Math.max(end, n.end());
+        }
+        return end + patch.get(SynthParameter.RELEASE) + TAIL_SECONDS;
+    }
+
+    // Vyrenderuje časovou osu not do cíle; vrací počet zapsaných vzorků
+    public long render(List<Note> notes, double lengthSeconds, AudioSink sink) throws IOException {
+        return render(notes, lengthSeconds, sink, Progress.NONE);
+    }
+
+    // Jako render(notes, lengthSeconds, sink), navíc hlásí průběh po každém bloku
+    public long render(List<Note> notes, double lengthSeconds, AudioSink sink, Progress progress) throws IOException {
+        double sampleRate = engine.getSampleRate();
+        List<Event> events = new ArrayList<>(notes.size() * 2);
+        for (Note n : notes) {
+            events.add(new Event(Math.round(n.start() * sampleRate), n.note(), n.velocity(), true));
+            events.add(new Event(Math.round(n.end() * sampleRate), n.note(), 0, false));
+        }
+        // Podle času; ve stejném vzorku nejdřív uvolnění, aby opakovaná nota znovu zazněla
+        events.sort(Comparator.comparingLong(Event::sample).thenComparing(Event::on));
+
+        long total = Math.round(lengthSeconds * sampleRate); // Celkový počet vzorků
+        long position = 0;
+        int next = 0; // Index další události
+        while (position < total) {
+            while (next < events.size() && events.get(next).sample() <= position) {
+                Event e = events.get(next++);
+                if (e.on()) {
+                    engine.noteOn(e.note(), e.velocity());
+                } else {
+                    engine.noteOff(e.note());
+                }
+            }
+            long until = next < events.size() ? Math.min(total, events.get(next).sample()) : total;
+            int n = (int) Math.min(BLOCK_SIZE, until - position); // Blok končí nejpozději na další události
+            engine.render(block, 0, n);
+            sink.write(block, 0, n);
+            position += n;
+            progress.update(position, total);
+        }
+        return total;
+    }
+
+    private record Event(long sample, int note, double velocity, boolean on) {
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro hromadné plnění polí
+
+// Strategie oscilátoru – typ vlny se vybere jednou při jeho změně, ne pro každý vzorek.
+// Fáze je 32bitová ve fixní řádové čárce (celá perioda = 2^32), takže se sama zabaluje a neroste do nekonečna.
+public interface Oscillator {
+
+    // Vyplní out[offset .. offset + length) surovým průběhem vlny (bez hlasitosti a obálky) a vrátí novou fázi
+    int render(float[] out, int offset, int length, int phase, int increment,
+               double width, double color, double depth);
+
+    // Sínusová vlna – mix sinus a kosinus podle parametru color je jen posunutý sínus s amplitudou 1
+    Oscillator SINE = (out, offset, length, phase, increment, width, color, depth) -> {
+        float[] table = Wavetable.SINE.forIncrement(increment);
+        int shift = Wavetable.phaseOffset(Math.atan2(color, 1 - color)); // (1-c)·sin x + c·cos x ∝ sin(x + atan2(c, 1-c))
+        for (int i = offset, end = offset + length; i < end; i++) {
+            out[i] = Wavetable.lookup(table, phase + shift); // Výsledná hodnota
+            phase += increment; // Aktualizace fáze (přetečení = nová perioda)
+        }
+        return phase;
+    };
+
+    // Obdélníková vlna – rozdíl dvou pásmově omezených pil posunutých o width periody
+    Oscillator SQUARE = (out, offset, length, phase, increment, width, color, depth) -> {
+        float[] table = Wavetable.SAW.forIncrement(increment);
+        int shift = (int) (long) (width * Wavetable.PHASE_SCALE); // Posun druhé pily = duty cycle
+        float dc = (float) (2 * width - 1); // Stejnosměrná složka, aby úrovně byly +1 a -1
+        for (int i = offset, end = offset + length; i < end; i++) {
+            out[i] = Wavetable.lookup(table, phase - shift) - Wavetable.lookup(table, phase) + dc;
+            phase += increment; // Aktualizace fáze
+        }
+        return phase;
+    };
+
+    // Pilovitá vlna + druhá harmonická složka modifikovaná parametrem depth
+    Oscillator SAW = (out, offset, length, phase, increment, width, color, depth) -> {
+        float[] table = Wavetable.SAW.forIncrement(increment);
+        float[] sine = Wavetable.SINE.forIncrement(increment);
+        float harmonic = (float) (depth * 0.5); // Amplituda druhé harmonické
+        boolean harmonicFits = Math.abs((long) increment) < (1L << 30); // Druhá harmonická pod Nyquistovou frekvencí
+        for (int i = offset, end = offset + length; i < end; i++) {
+            float value = Wavetable.lookup(table, phase); // Pásmově omezená pila
+            if (harmonicFits) {
+                value += harmonic * Wavetable.lookup(sine, phase << 1); // Dvojnásobná fáze = druhá harmonická
+            }
+            out[i] = value;
+            phase += increment; // Aktualizace fáze
+        }
+        return phase;
+    };
+
+    // Ticho pro neznámý typ vlny
+    Oscillator SILENCE = (out, offset, length, phase, increment, width, color, depth) -> {
+        Arrays.fill(out, offset, offset + length, 0f); // Vynulování bloku
+        return phase + increment * length; // Fáze běží dál, aby navázání bylo spojité
+    };
+
+    // Převod názvu vlny na strategii – volá se jen při změně typu vlny
+    static Oscillator forType(String waveType) {
+        return switch (waveType) {
+            case "sine" -> SINE;
+            case "square" -> SQUARE;
+            case "saw" -> SAW;
+            default -> SILENCE;
+        };
+    }
+}
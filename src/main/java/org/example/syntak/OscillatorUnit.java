@@ -0,0 +1,49 @@
+package org.example.syntak;
+
+// Oscilátor jako uzel grafu. Vstup 0 = modulace výšky v oktávách (např. z LFO), vzorkuje se v řídicí frekvenci.
+public final class OscillatorUnit extends UnitGenerator {
+
+    public static final int PITCH = 0; // Vstup modulace výšky
+
+    private Oscillator oscillator = Oscillator.SINE; // Strategie tvaru vlny
+    private double frequency = 440.0;  // Frekvence v Hz
+    private double width = 1.0;        // Duty cycle čtvercové vlny
+    private double color = 1.0;        // Mix sinus/kosinus
+    private double depth = 1.0;        // Druhá harmonická pily
+    private final double sampleRate;   // Vzorkovací frekvence
+    private int phase;                 // Fáze (32bitová fixní řádová čárka)
+
+    public OscillatorUnit(double sampleRate) {
+        super(1);
+        this.sampleRate = sampleRate;
+    }
+
+    public void setOscillator(Oscillator oscillator) {
+        this.oscillator = oscillator;
+    }
+
+    public void setFrequency(double frequency) {
+        this.frequency = frequency;
+    }
+
+    public void setShape(double width, double color, double depth) { // Parametry tvaru vlny
+        this.width = width;
+        this.color = color;
+        this.depth = depth;
+    }
+
+    @Override
+    protected void process(int length) {
+        float[] pitch = inputs[PITCH];
+        if (pitch == null) { // Bez modulace stačí jedno volání strategie na celý blok
+            phase = oscillator.render(output, 0, length, phase, Wavetable.increment(frequency, sampleRate),
+                    width, color, depth);
+            return;
+        }
+        for (int start = 0; start < length; start += Envelope.CONTROL_PERIOD) {
+            int n = Math.min(Envelope.CONTROL_PERIOD, length - start);
+            int increment = Wavetable.increment(frequency * Math.pow(2, pitch[start]), sampleRate);
+            phase = oscillator.render(output, start, n, phase, increment, width, color, depth);
+        }
+    }
+}
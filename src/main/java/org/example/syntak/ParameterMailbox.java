@@ -0,0 +1,49 @@
+package org.example.syntak;
+
+import java.util.concurrent.atomic.AtomicInteger; // Import pro masku změněných parametrů
+import java.util.concurrent.atomic.AtomicLongArray; // Import pro atomické uložení hodnot typu double
+
+// Bezzámková schránka pro předávání parametrů z UI vlákna do audio vlákna.
+// Každý parametr má jeden slot, takže rychlé série změn se slučují – audio vlákno vidí jen poslední hodnotu.
+final class ParameterMailbox {
+
+    private static final SynthParameter[] PARAMETERS = SynthParameter.values(); // Cache, values() vždy kopíruje pole
+
+    private final AtomicLongArray values = new AtomicLongArray(PARAMETERS.length); // Bity hodnot typu double
+    private final AtomicInteger dirty = new AtomicInteger(); // Bit na parametr: 1 = čeká na převzetí
+
+    ParameterMailbox() {
+        for (SynthParameter p : PARAMETERS) {
+            values.set(p.ordinal(), Double.doubleToRawLongBits(p.getDefaultValue())); // Výchozí hodnoty
+        }
+    }
+
+    // Zápis nové hodnoty (libovolné vlákno); starší nepřevzatá hodnota se přepíše
+    void post(SynthParameter parameter, double value) {
+        values.set(parameter.ordinal(), Double.doubleToRawLongBits(value)); // Nejprve hodnota…
+        int bit = 1 << parameter.ordinal();
+        int current;
+        do {
+            current = dirty.get(); // …pak příznak, aby příjemce nikdy nečetl starou hodnotu
+        } while ((current & bit) == 0 && !dirty.compareAndSet(current, current | bit));
+    }
+
+    // Poslední zapsaná hodnota parametru (i dosud nepřevzatá)
+    double get(SynthParameter parameter) {
+        return Double.longBitsToDouble(values.get(parameter.ordinal()));
+    }
+
+    // Převzetí masky změněných parametrů (audio vlákno); schránka se tím vyprázdní
+    int takeDirty() {
+        return dirty.getAndSet(0);
+    }
+
+    // Počet parametrů čekajících na převzetí
+    int pending() {
+        return Integer.bitCount(dirty.get());
+    }
+
+    static SynthParameter parameter(int ordinal) {
+        return PARAMETERS[ordinal];
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.syntak;
+
+// Lineární rampa k cílové hodnotě parametru – odstraňuje „zipper“ šum při rychlém otáčení knobem
+final class ParameterSmoother {
+
+    private double current;  // Aktuální hodnota
+    private double target;   // Cílová hodnota
+    private double step;     // Změna za jeden vzorek
+    private int remaining;   // Zbývající počet vzorků rampy
+
+    ParameterSmoother(double initial) {
+        current = initial;
+        target = initial;
+    }
+
+    // Nový cíl; rampa začíná z aktuální hodnoty, takže i přerušená rampa pokračuje plynule
+    void setTarget(double value, int rampSamples) {
+        target = value;
+        if (rampSamples <= 0) {
+            current = value; // Okamžitá změna
+            remaining = 0;
+        } else {
+            step = (value - current) / rampSamples;
+            remaining = rampSamples;
+        }
+    }
+
+    // Posun o n vzorků, vrací hodnotu na konci úseku
+    double advance(int n) {
+        if (remaining > 0) {
+            if (n >= remaining) {
+                current = target; // Konec rampy přesně na cíli
+                remaining = 0;
+            } else {
+                current += step * n;
+                remaining -= n;
+            }
+        }
+        return current;
+    }
+
+    double current() {
+        return current;
+    }
+
+    boolean isRamping() {
+        return remaining > 0;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.syntak;
+
+import java.util.Properties; // Import pro načtení patche ze souboru .properties
+
+// Nastavení zvuku nezávislé na UI: typ vlny, hodnoty všech parametrů knobů (SynthParameter)
+// a zapojení hlasu s filtrem a LFO (ty působí jen v režimu grafu)
+public final class Patch {
+
+    private String waveType = "sine"; // Typ vlny
+    private final double[] values = new double[SynthParameter.values().length]; // Hodnoty podle pořadí v SynthParameter
+    private VoiceGraphBuilder voiceGraph;                 // Zapojení hlasu, null = pevně zapojený hlas
+    private double filterCutoff = Double.POSITIVE_INFINITY; // Mezní kmitočet filtru v Hz (výchozí = otevřený)
+    private double filterResonance;                       // Rezonance filtru 0.0 až 1.0
+    private double lfoRate = 5.0;                         // Rychlost LFO v Hz
+    private double lfoDepth;                              // Hloubka LFO v oktávách (výchozí = vypnuté)
+
+    public Patch() {
+        for (SynthParameter p : SynthParameter.values()) {
+            values[p.ordinal()] = p.getDefaultValue(); // Výchozí hodnoty jako u knobů
+        }
+    }
+
+    public String getWaveType() {
+        return waveType;
+    }
+
+    public Patch setWaveType(String waveType) {
+        this.waveType = waveType.toLowerCase();
+        return this;
+    }
+
+    public double get(SynthParameter parameter) {
+        return values[parameter.ordinal()];
+    }
+
+    public Patch set(SynthParameter parameter, double value) {
+        values[parameter.ordinal()] = parameter.clamp(value); // Omezení na rozsah knobu
+        return this;
+    }
+
+    public VoiceGraphBuilder getVoiceGraph() {
+        return voiceGraph;
+    }
+
+    public Patch setVoiceGraph(VoiceGraphBuilder voiceGraph) { // Vlastní zapojení hlasu
+        this.voiceGraph = voiceGraph;
+        return this;
+    }
+
+    public Patch setVoiceGraph(String name) { // Vestavěné zapojení: off, standard, parallel
+        return setVoiceGraph(VoiceGraphBuilder.forName(name));
+    }
+
+    public double getFilterCutoff() {
+        return filterCutoff;
+    }
+
+    public double getFilterResonance() {
+        return filterResonance;
+    }
+
+    public Patch setFilter(double cutoff, double resonance) {
+        this.filterCutoff = cutoff;
+        this.filterResonance = resonance;
+        return this;
+    }
+
+    public double getLfoRate() {
+        return lfoRate;
+    }
+
+    public double getLfoDepth() {
+        return lfoDepth;
+    }
+
+    public Patch setLfo(double rate, double depthOctaves) {
+        this.lfoRate = rate;
+        this.lfoDepth = depthOctaves;
+        return this;
+    }
+
+    // Přenesení patche do enginu; parametry se nastaví okamžitě bez rampy (audio vlákno nesmí běžet)
+    public void applyTo(SynthEngine engine) {
+        engine.setWaveType(waveType);
+        engine.setVoiceGraph(voiceGraph);
+        engine.setFilter(filterCutoff, filterResonance);
+        engine.setLfo(lfoRate, lfoDepth);
+        for (SynthParameter p : SynthParameter.values()) {
+            engine.updateParameter(p, values[p.ordinal()]);
+        }
+        engine.settleParameters();
+    }
+
+    // Načtení z vlastností: wave=saw, volume=0.8, tune=440, graph=standard, cutoff=2000, lfo-rate=6 …
+    // (chybějící klíče ponechají výchozí hodnotu)
+    public static Patch fromProperties(Properties properties) {
+        return new Patch().load(properties);
+    }
+
+    // Přepsání hodnot, které vlastnosti obsahují; ostatní zůstanou beze změny
+    public Patch load(Properties properties) {
+        String wave = properties.getProperty("wave");
+        if (wave != null) {
+            setWaveType(wave.trim());
+        }
+        String graph = properties.getProperty("graph");
+        if (graph != null) {
+            setVoiceGraph(graph);
+        }
+        setFilter(number(properties, "cutoff", filterCutoff), number(properties, "resonance", filterResonance));
+        setLfo(number(properties, "lfo-rate", lfoRate), number(properties, "lfo-depth", lfoDepth));
+        for (SynthParameter p : SynthParameter.values()) {
+            String value = properties.getProperty(p.name().toLowerCase());
+            if (value != null) {
+                set(p, Double.parseDouble(value.trim()));
+            }
+        }
+        return this;
+    }
+
+    private static double number(Properties properties, String key, double fallback) {
+        String value = properties.getProperty(key);
+        return value != null ? Double.parseDouble(value.trim()) : fallback;
+    }
+}
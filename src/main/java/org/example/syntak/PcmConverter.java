@@ -0,0 +1,167 @@
+package org.example.syntak;
+
+import javax.sound.sampled.AudioFormat; // Import pro popis výstupního formátu
+import java.nio.ByteBuffer; // Import cílového PCM bufferu
+import java.nio.ByteOrder; // Import pro pořadí bajtů podle formátu
+import java.nio.FloatBuffer; // Import pro hromadný zápis 32bitových float vzorků
+import java.nio.IntBuffer; // Import pro hromadný zápis 32bitových celočíselných vzorků
+import java.nio.ShortBuffer; // Import pro hromadný zápis 16bitových vzorků
+
+// Převod bloků vzorků na PCM: ořezání a převod přes BlockOps (SIMD, je-li k dispozici),
+// pak jeden hromadný zápis do bufferu v jeho pořadí bajtů. Pohled na buffer se pro stejný cíl znovu používá.
+// Podporované formáty: 16/24/32bitové celé se znaménkem a 32bitový float, libovolný počet kanálů
+// (mono mix se zkopíruje do všech kanálů) a obě pořadí bajtů.
+public final class PcmConverter {
+
+    private final BlockOps ops;          // Implementace blokových operací
+    private short[] pcm = new short[0];  // Mezivýsledek 16bitových vzorků
+    private short[] frames16 = new short[0]; // Prokládané 16bitové snímky pro více kanálů
+    private int[] pcm32 = new int[0];    // Mezivýsledek 32bitových vzorků
+    private float[] float32 = new float[0]; // Prokládané float snímky pro více kanálů
+    private byte[] bytes24 = new byte[0]; // Zabalené 24bitové snímky
+
+    private ByteBuffer viewTarget;       // Buffer, pro který jsou vytvořeny pohledy
+    private ByteOrder viewOrder;         // Pořadí bajtů pohledů
+    private ShortBuffer view;            // Pohled na cílový buffer po 16 bitech
+    private IntBuffer intView;           // Pohled po 32bitových celých číslech
+    private FloatBuffer floatView;       // Pohled po 32bitových float
+
+    public PcmConverter() {
+        this(BlockOps.get());
+    }
+
+    public PcmConverter(BlockOps ops) {
+        this.ops = ops;
+    }
+
+    // Formát z jednotlivých voleb: bits 16/24/32, floating = 32bitový float
+    public static AudioFormat format(double sampleRate, int bits, boolean floating, int channels, boolean bigEndian) {
+        if (floating) {
+            return new AudioFormat(AudioFormat.Encoding.PCM_FLOAT, (float) sampleRate, 32, channels,
+                    4 * channels, (float) sampleRate, bigEndian);
+        }
+        return new AudioFormat((float) sampleRate, bits, channels, true, bigEndian);
+    }
+
+    // true, pokud formát umí convert() zapsat
+    public static boolean isSupported(AudioFormat format) {
+        int bits = format.getSampleSizeInBits();
+        if (format.getChannels() < 1) {
+            return false;
+        }
+        if (AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding())) {
+            return bits == 32;
+        }
+        return AudioFormat.Encoding.PCM_SIGNED.equals(format.getEncoding()) && (bits == 16 || bits == 24 || bits == 32);
+    }
+
+    // Zapíše length vzorků od aktuální pozice target (pozice musí být sudá) a posune ji
+    public void toPcm16(float[] samples, int offset, int length, ByteBuffer target) {
+        if (pcm.length < length) {
+            pcm = new short[length]; // Zvětšení jen při větším bloku
+        }
+        ops.toPcm16(samples, offset, length, pcm, 0);
+        updateViews(target, target.order());
+        view.limit(target.limit() / 2).position(target.position() / 2);
+        view.put(pcm, 0, length); // Hromadný zápis v pořadí bajtů cíle
+        target.position(target.position() + 2 * length);
+    }
+
+    // Zapíše frames snímků mono mixu ve formátu format (pořadí bajtů podle formátu, ne podle target).
+    // Pozice target musí být násobkem velikosti vzorku; float se neořezává, aby zůstala rezerva nad 0 dBFS.
+    public void convert(float[] samples, int offset, int frames, AudioFormat format, ByteBuffer target) {
+        int channels = format.getChannels();
+        int values = frames * channels; // Počet vzorků včetně kanálů
+        ByteOrder order = format.isBigEndian() ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+        int bits = format.getSampleSizeInBits();
+        if (bits != 24 && target.position() % (bits / 8) != 0) {
+            throw new IllegalArgumentException("Pozice bufferu není zarovnaná na velikost vzorku: " + target.position());
+        }
+        if (AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding())) {
+            updateViews(target, order);
+            floatView.limit(target.limit() / 4).position(target.position() / 4);
+            if (channels == 1) {
+                floatView.put(samples, offset, frames); // Přímý hromadný zápis bez mezikroku
+            } else {
+                if (float32.length < values) {
+                    float32 = new float[values];
+                }
+                for (int i = 0, v = 0; i < frames; i++) {
+                    for (int c = 0; c < channels; c++) {
+                        float32[v++] = samples[offset + i];
+                    }
+                }
+                floatView.put(float32, 0, values);
+            }
+            target.position(target.position() + 4 * values);
+        } else if (bits == 16) {
+            if (channels == 1) {
+                ByteOrder previous = target.order();
+                toPcm16(samples, offset, frames, target.order(order));
+                target.order(previous);
+                return;
+            }
+            if (pcm.length < frames) {
+                pcm = new short[frames];
+            }
+            if (frames16.length < values) {
+                frames16 = new short[values];
+            }
+            ops.toPcm16(samples, offset, frames, pcm, 0); // SIMD převod jednou, pak rozkopírování do kanálů
+            for (int i = 0, v = 0; i < frames; i++) {
+                for (int c = 0; c < channels; c++) {
+                    frames16[v++] = pcm[i];
+                }
+            }
+            updateViews(target, order);
+            view.limit(target.limit() / 2).position(target.position() / 2);
+            view.put(frames16, 0, values);
+            target.position(target.position() + 2 * values);
+        } else if (bits == 24) {
+            if (bytes24.length < 3 * values) {
+                bytes24 = new byte[3 * values];
+            }
+            boolean big = order == ByteOrder.BIG_ENDIAN;
+            for (int i = 0, b = 0; i < frames; i++) {
+                float clipped = Math.max(-1f, Math.min(samples[offset + i], 1f));
+                int s = Math.round(clipped * 8388607f); // 2^23 - 1
+                byte hi = (byte) (s >> 16), mid = (byte) (s >> 8), lo = (byte) s;
+                for (int c = 0; c < channels; c++) {
+                    bytes24[b++] = big ? hi : lo;
+                    bytes24[b++] = mid;
+                    bytes24[b++] = big ? lo : hi;
+                }
+            }
+            target.put(bytes24, 0, 3 * values); // Pro 24 bitů neexistuje pohled – jeden hromadný zápis bajtů
+        } else if (bits == 32) {
+            if (pcm32.length < values) {
+                pcm32 = new int[values];
+            }
+            for (int i = 0, v = 0; i < frames; i++) {
+                float clipped = Math.max(-1f, Math.min(samples[offset + i], 1f));
+                int s = (int) (clipped * 2147483647.0); // 2^31 - 1 (v double kvůli přesnosti)
+                for (int c = 0; c < channels; c++) {
+                    pcm32[v++] = s;
+                }
+            }
+            updateViews(target, order);
+            intView.limit(target.limit() / 4).position(target.position() / 4);
+            intView.put(pcm32, 0, values);
+            target.position(target.position() + 4 * values);
+        } else {
+            throw new IllegalArgumentException("Nepodporovaný formát: " + format);
+        }
+    }
+
+    // Pohledy přes celý buffer; znovu se vytvoří jen pro jiný cíl nebo jiné pořadí bajtů
+    private void updateViews(ByteBuffer target, ByteOrder order) {
+        if (viewTarget != target || viewOrder != order) {
+            ByteBuffer whole = target.duplicate().clear().order(order);
+            view = whole.asShortBuffer();
+            intView = whole.asIntBuffer();
+            floatView = whole.asFloatBuffer();
+            viewTarget = target;
+            viewOrder = order;
+        }
+    }
+}
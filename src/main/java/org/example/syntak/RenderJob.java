@@ -0,0 +1,19 @@
+package org.example.syntak;
+
+import java.util.List; // Import pro časovou osu not
+import java.util.Objects; // Import pro kontrolu povinných položek
+
+// Úloha dávkového renderu: patch + noty + cíl. Délka ≤ 0 znamená „do doznění poslední noty“.
+// Cíl přebírá RenderService a po dokončení (i zrušení) ho zavře.
+public record RenderJob(String name, Patch patch, List<Note> notes, double lengthSeconds, AudioSink sink) {
+
+    public RenderJob {
+        Objects.requireNonNull(patch, "patch");
+        Objects.requireNonNull(sink, "sink");
+        notes = List.copyOf(notes); // Úloha běží v jiném vlákně – vlastní neměnná kopie
+    }
+
+    public RenderJob(String name, Patch patch, List<Note> notes, AudioSink sink) {
+        this(name, patch, notes, 0, sink);
+    }
+}
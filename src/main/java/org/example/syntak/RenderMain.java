@@ -0,0 +1,148 @@
+package org.example.syntak;
+
+import javax.sound.sampled.AudioFormat; // Import pro formát výstupního souboru
+import java.io.IOException; // Import pro chyby při čtení vstupů a zápisu výstupu
+import java.io.Reader; // Import pro čtení souboru s patchem
+import java.nio.file.Files; // Import pro práci se soubory
+import java.nio.file.Path; // Import pro cesty k souborům
+import java.util.ArrayList; // Import pro seznam not
+import java.util.List; // Import pro seznam not
+import java.util.Properties; // Import pro patch ve formátu .properties
+
+// Vstupní bod pro offline render do WAV bez JavaFX a bez zvukového zařízení.
+// Spuštění: java -cp target/classes org.example.syntak.RenderMain --out demo.wav --wave saw --note 60:0:1
+public class RenderMain {
+
+    public static void main(String[] args) {
+        try {
+            System.exit(run(args));
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            usage();
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Chyba při renderu: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    static int run(String[] args) throws IOException {
+        Path out = null; // Výstupní soubor
+        Patch patch = new Patch(); // Výchozí nastavení zvuku
+        List<Note> notes = new ArrayList<>(); // Časová osa
+        double length = -1; // Délka v sekundách; záporná = podle not
+        int voices = SynthEngine.DEFAULT_MAX_VOICES; // Počet hlasů
+        double rate = 44100; // Vzorkovací frekvence
+        String sampleFormat = "16"; // Formát vzorků: 16, 24, 32 nebo float
+        int channels = 1; // Počet kanálů
+
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                usage();
+                return 0;
+            }
+            if (!arg.startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Neplatný argument: " + arg);
+            }
+            String value = args[++i];
+            switch (arg) {
+                case "--out" -> out = Path.of(value);
+                case "--patch" -> patch.load(loadProperties(Path.of(value))); // Přepíše jen uvedené klíče
+                case "--wave" -> patch.setWaveType(value);
+                case "--note" -> notes.add(parseNote(value.replace(':', ' ')));
+                case "--notes" -> notes.addAll(loadNotes(Path.of(value)));
+                case "--length" -> length = Double.parseDouble(value);
+                case "--voices" -> voices = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--format" -> sampleFormat = value;
+                case "--channels" -> channels = Integer.parseInt(value);
+                case "--graph" -> patch.setVoiceGraph(value);
+                case "--cutoff" -> patch.setFilter(Double.parseDouble(value), patch.getFilterResonance());
+                case "--resonance" -> patch.setFilter(patch.getFilterCutoff(), Double.parseDouble(value));
+                case "--lfo-rate" -> patch.setLfo(Double.parseDouble(value), patch.getLfoDepth());
+                case "--lfo-depth" -> patch.setLfo(patch.getLfoRate(), Double.parseDouble(value));
+                default -> {
+                    SynthParameter p = SynthParameter.fromName(arg.substring(2)); // --volume, --tune, …
+                    if (p == null) {
+                        throw new IllegalArgumentException("Neznámý parametr: " + arg);
+                    }
+                    patch.set(p, Double.parseDouble(value));
+                }
+            }
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("Chybí výstupní soubor --out");
+        }
+
+        AudioFormat format = switch (sampleFormat) {
+            case "16", "24", "32" -> PcmConverter.format(rate, Integer.parseInt(sampleFormat), false, channels, false);
+            case "float" -> PcmConverter.format(rate, 32, true, channels, false);
+            default -> throw new IllegalArgumentException("Neznámý formát vzorků: " + sampleFormat);
+        };
+        OfflineRenderer renderer = new OfflineRenderer(patch, voices);
+        renderer.getEngine().setSampleRate(rate); // Všechny přírůstky se přepočítají pro zvolenou frekvenci
+        double seconds = length >= 0 ? length : renderer.defaultLength(notes);
+        long started = System.nanoTime();
+        long samples;
+        try (WavWriter writer = new WavWriter(out, format)) {
+            samples = renderer.render(notes, seconds, writer);
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9; // Doba renderu v sekundách
+        double audio = samples / renderer.getEngine().getSampleRate(); // Délka zvuku v sekundách
+        System.out.printf("%s: %.2f s zvuku za %.3f s (%.0f× rychleji než reálný čas)%n",
+                out, audio, elapsed, elapsed > 0 ? audio / elapsed : Double.POSITIVE_INFINITY);
+        return 0;
+    }
+
+    // Patch ze souboru .properties; klíče wave, volume, tune, … release a graph, cutoff, resonance, lfo-rate, lfo-depth
+    private static Properties loadProperties(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+        }
+        return properties;
+    }
+
+    // Soubor s notami: na řádek „nota začátek délka [síla]“, # uvozuje komentář
+    private static List<Note> loadNotes(Path path) throws IOException {
+        List<Note> notes = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            int comment = line.indexOf('#');
+            String content = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!content.isEmpty()) {
+                notes.add(parseNote(content));
+            }
+        }
+        return notes;
+    }
+
+    private static Note parseNote(String text) {
+        String[] parts = text.trim().split("\\s+");
+        if (parts.length < 3 || parts.length > 4) {
+            throw new IllegalArgumentException("Nota musí mít tvar „nota začátek délka [síla]“: " + text);
+        }
+        double velocity = parts.length == 4 ? Double.parseDouble(parts[3]) : 1.0;
+        return new Note(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]), velocity);
+    }
+
+    private static void usage() {
+        System.err.println("""
+                Použití: RenderMain --out soubor.wav [volby]
+                  --patch soubor.properties   patch (wave, volume, tune, … release)
+                  --wave sine|square|saw      typ vlny
+                  --volume|--tune|… hodnota   jednotlivé parametry knobů
+                  --graph off|standard|parallel   hlas jako graf jednotkových generátorů (výchozí off)
+                  --cutoff Hz                 mezní kmitočet filtru (jen s --graph)
+                  --resonance 0..1            rezonance filtru (jen s --graph)
+                  --lfo-rate Hz               rychlost LFO (jen s --graph)
+                  --lfo-depth oktávy          hloubka modulace výšky LFO (jen s --graph)
+                  --note nota:začátek:délka[:síla]   nota (lze opakovat), čas v sekundách
+                  --notes soubor              noty, na řádek „nota začátek délka [síla]“
+                  --length sekundy            délka renderu (výchozí: do doznění poslední noty)
+                  --voices počet              počet hlasů
+                  --rate frekvence            vzorkovací frekvence v Hz (výchozí 44100)
+                  --format 16|24|32|float     formát vzorků (výchozí 16)
+                  --channels počet            počet kanálů (mono mix se zkopíruje)""");
+    }
+}
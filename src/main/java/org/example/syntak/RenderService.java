@@ -0,0 +1,122 @@
+package org.example.syntak;
+
+import java.io.IOException; // Import pro chyby zápisu do cíle
+import java.util.concurrent.CancellationException; // Import pro zrušené úlohy
+import java.util.concurrent.ForkJoinPool; // Import pro work-stealing pool
+import java.util.concurrent.RejectedExecutionException; // Import pro odeslání po ukončení služby
+import java.util.concurrent.Semaphore; // Import pro omezení počtu rozpracovaných úloh
+import java.util.concurrent.TimeUnit; // Import pro časové limity
+import java.util.logging.Level; // Import pro úroveň logování
+import java.util.logging.Logger; // Import pro logování
+
+// Dávkový render mnoha nezávislých instancí enginu současně (knihovny zvuků, náhledy presetů).
+// Úlohy běží na work-stealing poolu o velikosti počtu jader; každá má vlastní engine bez zvukové linky.
+// Počet přijatých a nedokončených úloh je omezený – submit() při plné frontě blokuje (backpressure).
+public class RenderService implements AutoCloseable {
+
+    private final ForkJoinPool pool; // Pracovní vlákna (sdílí je i paralelní render hlasů)
+    private final Semaphore slots;   // Volná místa ve frontě
+    private final int queueCapacity; // Velikost fronty
+    private final int maxVoices;     // Polyfonie enginu každé úlohy
+    private volatile boolean closed; // Služba už nepřijímá úlohy
+
+    private static final Logger logger = Logger.getLogger(RenderService.class.getName()); // Logger pro záznam událostí
+
+    public RenderService() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public RenderService(int parallelism) {
+        this(parallelism, parallelism * 2, SynthEngine.DEFAULT_MAX_VOICES);
+    }
+
+    // queueCapacity = kolik úloh může být najednou přijato (běžících i čekajících)
+    public RenderService(int parallelism, int queueCapacity, int maxVoices) {
+        if (parallelism < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("parallelism a queueCapacity musí být kladné");
+        }
+        pool = new ForkJoinPool(parallelism);
+        slots = new Semaphore(queueCapacity);
+        this.queueCapacity = queueCapacity;
+        this.maxVoices = maxVoices;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Odeslání úlohy; při plné frontě čeká na uvolnění místa
+    public RenderTask submit(RenderJob job) throws InterruptedException {
+        checkOpen();
+        slots.acquire();
+        return start(job);
+    }
+
+    // Odeslání úlohy s časovým limitem; vrací null, pokud se místo ve frontě neuvolnilo
+    public RenderTask trySubmit(RenderJob job, long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        if (!slots.tryAcquire(timeout, unit)) {
+            return null;
+        }
+        return start(job);
+    }
+
+    public int getPendingJobs() { // Počet přijatých a nedokončených úloh
+        return queueCapacity - slots.availablePermits();
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new RejectedExecutionException("RenderService je ukončená");
+        }
+    }
+
+    private RenderTask start(RenderJob job) {
+        RenderTask task = new RenderTask(job);
+        try {
+            pool.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            slots.release();
+            throw e;
+        }
+        return task;
+    }
+
+    // Tělo úlohy – vlastní engine, render do cíle, zavření cíle i při chybě
+    private void run(RenderTask task) {
+        RenderJob job = task.getJob();
+        long samples = 0;
+        Throwable error = null;
+        try (AudioSink sink = job.sink()) {
+            if (!task.isCancelRequested()) { // Zrušená ve frontě se vůbec nespustí
+                OfflineRenderer renderer = new OfflineRenderer(job.patch(), maxVoices, pool);
+                double length = job.lengthSeconds() > 0 ? job.lengthSeconds() : renderer.defaultLength(job.notes());
+                samples = renderer.render(job.notes(), length, sink, task::update);
+            }
+        } catch (CancellationException e) {
+            // Přerušeno během renderu – výsledek už je zrušený
+        } catch (IOException | RuntimeException e) {
+            logger.log(Level.WARNING, "Render " + job.name() + " selhal", e);
+            error = e;
+        }
+        slots.release(); // Místo ve frontě se uvolní dřív, než se o dokončení dozví volající
+        if (error != null) {
+            task.fail(error);
+        } else {
+            task.complete(samples); // Až po zavření cíle, aby byl soubor kompletní (zrušenou úlohu nezmění)
+        }
+    }
+
+    // Ukončení – nové úlohy se odmítnou, rozpracované se dokončí
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        closed = true;
+        pool.shutdown();
+        return pool.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        pool.close(); // Počká na dokončení rozpracovaných úloh
+    }
+}
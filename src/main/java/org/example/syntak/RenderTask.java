@@ -0,0 +1,78 @@
+package org.example.syntak;
+
+import java.util.concurrent.CancellationException; // Import pro přerušení zrušené úlohy
+import java.util.concurrent.CompletableFuture; // Import pro výsledek úlohy
+import java.util.concurrent.ExecutionException; // Import pro chyby při renderu
+import java.util.concurrent.Future; // Import pro rozhraní výsledku
+
+// Odkaz na úlohu odeslanou do RenderService – průběh, zrušení a výsledek (počet vzorků)
+public final class RenderTask {
+
+    private final RenderJob job;             // Zadání úlohy
+    private final CompletableFuture<Long> result = new CompletableFuture<>(); // Výsledek
+    private volatile long samplesDone;       // Vyrenderované vzorky
+    private volatile long samplesTotal = -1; // Celkový počet vzorků (-1 = úloha ještě nezačala)
+    private volatile boolean cancelled;      // Požadavek na zrušení
+
+    RenderTask(RenderJob job) {
+        this.job = job;
+    }
+
+    public RenderJob getJob() {
+        return job;
+    }
+
+    // Průběh 0.0 až 1.0
+    public double getProgress() {
+        long total = samplesTotal;
+        return total <= 0 ? (result.isDone() ? 1.0 : 0.0) : (double) samplesDone / total;
+    }
+
+    public long getSamplesDone() {
+        return samplesDone;
+    }
+
+    // Zrušení – čekající úloha se nespustí, běžící skončí po aktuálním bloku
+    public void cancel() {
+        cancelled = true;
+        result.cancel(false);
+    }
+
+    public boolean isCancelled() {
+        return result.isCancelled();
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    // Počká na dokončení a vrátí počet vyrenderovaných vzorků
+    public long get() throws InterruptedException, ExecutionException {
+        return result.get();
+    }
+
+    public Future<Long> future() { // Pro skládání s jiným kódem
+        return result;
+    }
+
+    // Kontrola zrušení a zápis průběhu – volá renderující vlákno po každém bloku
+    void update(long done, long total) {
+        if (cancelled) {
+            throw new CancellationException("Render " + job.name() + " byl zrušen");
+        }
+        samplesDone = done;
+        samplesTotal = total;
+    }
+
+    boolean isCancelRequested() {
+        return cancelled;
+    }
+
+    void complete(long samples) {
+        result.complete(samples);
+    }
+
+    void fail(Throwable error) {
+        result.completeExceptionally(error);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.syntak;
+
+import java.util.concurrent.atomic.AtomicLong; // Import pro souhrnné čítače
+import java.util.concurrent.atomic.AtomicLongArray; // Import pro čítače košů
+
+// Histogram doby renderu bloku bez alokací (log-lineární koše jako HdrHistogram):
+// každá oktáva nanosekund je rozdělena na 16 košů, takže relativní chyba je nejvýše ~6 %.
+// Zapisuje audio vlákno, číst lze z libovolného vlákna (JMX, UI).
+final class RenderTimeHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4; // 16 košů na oktávu
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS; // Pokrývá celý rozsah long
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS); // Počty hodnot v koších
+    private final AtomicLong total = new AtomicLong(); // Počet zaznamenaných hodnot
+    private final AtomicLong sum = new AtomicLong();   // Součet hodnot pro průměr
+    private final AtomicLong max = new AtomicLong();   // Největší hodnota
+
+    void record(long nanos) {
+        if (nanos < 0) {
+            return;
+        }
+        counts.getAndIncrement(index(nanos));
+        total.getAndIncrement();
+        sum.getAndAdd(nanos);
+        if (nanos > max.get()) {
+            max.set(nanos); // Jediný zapisovatel – porovnání a zápis nemusí být atomické
+        }
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    double mean() {
+        long n = total.get();
+        return n == 0 ? 0 : sum.get() / (double) n;
+    }
+
+    // Hodnota, pod kterou leží daný podíl záznamů (0.5 = medián, 0.99 = 99. percentil); horní mez koše
+    long percentile(double quantile) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(quantile * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= threshold) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    // Koš pro hodnotu: malé hodnoty lineárně, větší podle nejvyššího bitu a dalších 4 bitů
+    static int index(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    static long upperBound(int index) {
+        int octave = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (octave == 0) {
+            return sub;
+        }
+        int shift = octave - 1;
+        return ((long) (SUB_BUCKETS + sub) << shift) + (1L << shift) - 1;
+    }
+}
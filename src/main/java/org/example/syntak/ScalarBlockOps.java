@@ -0,0 +1,35 @@
+package org.example.syntak;
+
+// Skalární blokové operace – záložní cesta bez Vector API
+final class ScalarBlockOps implements BlockOps {
+
+    static final ScalarBlockOps INSTANCE = new ScalarBlockOps();
+
+    private ScalarBlockOps() {
+    }
+
+    @Override
+    public void mixRamped(float[] dst, int dstOffset, float[] src, int srcOffset, int length,
+                          float gain, float gainStep, float level, float levelStep) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] += src[srcOffset + i] * gain * level; // Aplikace hlasitosti a obálky
+            gain += gainStep;
+            level += levelStep;
+        }
+    }
+
+    @Override
+    public void add(float[] dst, int dstOffset, float[] src, int srcOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[dstOffset + i] += src[srcOffset + i];
+        }
+    }
+
+    @Override
+    public void toPcm16(float[] src, int srcOffset, int length, short[] dst, int dstOffset) {
+        for (int i = 0; i < length; i++) {
+            float clipped = Math.max(-1f, Math.min(src[srcOffset + i], 1f)); // Ořezání mixu
+            dst[dstOffset + i] = (short) (clipped * 32767); // Převedení na 16bitový vzorek
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro výchozí naplnění bufferů
+import java.util.concurrent.atomic.AtomicReference; // Import pro výměnu hotových spekter mezi vlákny
+import java.util.concurrent.locks.LockSupport; // Import pro čekání na další data
+
+// Spektrální analyzátor na vlastním vlákně: čte výstup z AudioTap, počítá FFT s Hannovým oknem
+// a překryvem 75 %, vyhlazuje úrovně a hotová spektra předává čtenáři (FX vlákno) trojitým bufferem
+// přes jednu atomickou výměnu. Audio vlákno ani FX vlákno tím nejsou zatížené; za běhu se nic nealokuje.
+public class SpectrumAnalyzer implements AutoCloseable {
+
+    public static final int FFT_SIZE = 4096;           // Délka okna (rozlišení ≈ 10,8 Hz při 44,1 kHz)
+    public static final int BINS = FFT_SIZE / 2 + 1;   // Počet frekvenčních pásem
+    private static final int HOP = FFT_SIZE / 4;       // Posun mezi okny (překryv 75 %)
+    public static final float FLOOR_DB = -120f;        // Nejnižší zobrazovaná úroveň
+    private static final double RELEASE_DB_PER_SECOND = 40; // Rychlost poklesu vyhlazené úrovně
+
+    private final AudioTap tap;                        // Zdroj vzorků
+    private final double sampleRate;                   // Vzorkovací frekvence
+    private final Fft fft = new Fft(FFT_SIZE);         // Předpočítané twiddle faktory
+    private final float[] window = new float[FFT_SIZE]; // Hannovo okno
+    private final float[] samples = new float[FFT_SIZE]; // Poslední okno vzorků
+    private final float[] re = new float[FFT_SIZE];    // Pracovní buffery FFT
+    private final float[] im = new float[FFT_SIZE];
+    private final float[] smoothed = new float[BINS];  // Vyhlazené úrovně v dB
+    private final float releasePerFrame;               // Pokles v dB za jedno okno
+    private final float normalization;                 // Převod amplitudy na dBFS (sínus 0 dBFS = 0 dB)
+
+    // Trojitý buffer: zapisovatel plní back, čtenář drží front, middle je poslední hotové spektrum
+    private static final class Frame {
+        final float[] bins = new float[BINS];
+        long sequence; // Pořadí zveřejnění (0 = ještě nic)
+    }
+
+    private final AtomicReference<Frame> middle = new AtomicReference<>(new Frame());
+    private Frame back = new Frame();  // Vlastní ho vlákno analyzátoru
+    private Frame front = new Frame(); // Vlastní ho čtenář
+    private long sequence;             // Počet zveřejněných spekter
+
+    private volatile boolean running;  // Příznak běhu vlákna
+    private Thread thread;             // Vlákno analyzátoru
+
+    public SpectrumAnalyzer(AudioTap tap, double sampleRate) {
+        this.tap = tap;
+        this.sampleRate = sampleRate;
+        double sum = 0;
+        for (int i = 0; i < FFT_SIZE; i++) {
+            window[i] = (float) (0.5 - 0.5 * Math.cos(2 * Math.PI * i / FFT_SIZE));
+            sum += window[i];
+        }
+        normalization = (float) (2 / sum); // Amplituda sínusu po okně a FFT je sum/2
+        releasePerFrame = (float) (RELEASE_DB_PER_SECOND * HOP / sampleRate);
+        Arrays.fill(smoothed, FLOOR_DB);
+        for (Frame f : new Frame[]{middle.get(), back, front}) {
+            Arrays.fill(f.bins, FLOOR_DB);
+        }
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    // Frekvence středu pásma bin v Hz
+    public double binFrequency(int bin) {
+        return bin * sampleRate / FFT_SIZE;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "SpectrumAnalyzer");
+        thread.setDaemon(true); // Nebrání ukončení aplikace
+        thread.setPriority(Thread.MIN_PRIORITY); // Zobrazení má nižší prioritu než zvuk
+        thread.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    // Poslední hotové spektrum v dB (BINS hodnot). Volá jen jedno vlákno; pole platí do dalšího volání.
+    public float[] latest() {
+        if (middle.get().sequence > front.sequence) {
+            front = middle.getAndSet(front); // Výměna bez zámku a bez kopírování
+        }
+        return front.bins;
+    }
+
+    private void run() {
+        long hopNanos = (long) (HOP / sampleRate * 1e9);
+        long analyzed = tap.position();
+        while (running) {
+            long position = tap.position();
+            if (position - analyzed < HOP) {
+                LockSupport.parkNanos(hopNanos / 4); // Čekání na další posun okna
+                continue;
+            }
+            analyzed = tap.latest(samples, FFT_SIZE);
+            analyze();
+            publish();
+        }
+    }
+
+    // Okno, FFT a převod na vyhlazené dB
+    private void analyze() {
+        for (int i = 0; i < FFT_SIZE; i++) {
+            re[i] = samples[i] * window[i];
+            im[i] = 0f;
+        }
+        fft.forward(re, im);
+        for (int k = 0; k < BINS; k++) {
+            float magnitude = (float) Math.sqrt(re[k] * re[k] + im[k] * im[k]) * normalization;
+            float db = magnitude > 0 ? (float) (20 * Math.log10(magnitude)) : FLOOR_DB;
+            db = Math.max(db, FLOOR_DB);
+            smoothed[k] = Math.max(db, smoothed[k] - releasePerFrame); // Okamžitý náběh, pomalý pokles
+        }
+    }
+
+    private void publish() {
+        System.arraycopy(smoothed, 0, back.bins, 0, BINS);
+        back.sequence = ++sequence;
+        back = middle.getAndSet(back); // Zpět dostaneme buffer, který čtenář už nepoužívá
+    }
+}
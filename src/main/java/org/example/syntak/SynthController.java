@@ -3,10 +3,13 @@ package org.example.syntak;
 import javafx.fxml.FXML; // Import pro anotaci FXML
 import javafx.scene.canvas.Canvas; // Import pro práci s plátnem (canvas)
 import javafx.scene.control.Button; // Import pro tlačítka
+import javafx.scene.control.Label; // Import pro textový popisek s metrikami
+import javafx.scene.control.ToggleButton; // Import pro přepínací tlačítko
 import javafx.scene.layout.Pane; // Import pro práci s panelem
 import javafx.scene.paint.Color; // Import pro práci s barvami
 import javafx.scene.canvas.GraphicsContext; // Import pro grafický kontext plátna
 import javafx.animation.AnimationTimer; // Import pro animaci
+
 import java.util.logging.Level; // Import pro úroveň logování
 import java.util.logging.Logger; // Import pro logování
 
@@ -15,108 +18,260 @@ public class SynthController { // Třída SynthController, která řídí intera
     @FXML
     private Canvas oscilloscopeCanvas; // Plátno pro zobrazení osciloskopu
 
+    @FXML
+    private Canvas spectrumCanvas; // Plátno pro zobrazení spektra
+
     @FXML
     private Pane knobContainer; // Kontejner pro ovládací knoby
 
     @FXML
     private Button sineButton, squareButton, sawButton, startButton; // Tlačítka pro výběr vlny a start/zastavení
 
+    @FXML
+    private ToggleButton statsButton, bypassButton; // Přepínače zobrazení metrik a vyřazení efektů
+
+    @FXML
+    private Label metricsLabel; // Popisek s metrikami výkonu
+
     private SynthEngine synthEngine; // Instance zvukového enginu
+    private MidiInput midiInput; // Vstup z MIDI klávesnic a kontrolerů
+    private boolean startNoteHeld; // Tlačítko Start drží notu DEFAULT_NOTE
+
     private static final Logger logger = Logger.getLogger(SynthController.class.getName()); // Logger pro záznam událostí
 
+    // Osciloskop – předalokované buffery, aby animace v každém snímku nic nealokovala
+    private static final int SCOPE_SAMPLES = 1024; // Počet zobrazených vzorků
+    private static final int SCOPE_WINDOW = 2 * SCOPE_SAMPLES; // Čtené okno (rezerva pro hledání průchodu nulou)
+    private static final int SCOPE_MAX_COLUMNS = 2048; // Maximální šířka plátna v pixelech
+    private final float[] scopeWindow = new float[SCOPE_WINDOW]; // Vzorky z odposlechu
+    private final double[] scopeX = new double[2 * SCOPE_MAX_COLUMNS]; // x souřadnice polyline
+    private final double[] scopeY = new double[2 * SCOPE_MAX_COLUMNS]; // y souřadnice polyline
+
+    // Spektrum – logaritmická osa 20 Hz až Nyquist, rozsah úrovní SPECTRUM_MIN_DB až 0 dBFS
+    private static final double SPECTRUM_MIN_HZ = 20; // Nejnižší zobrazená frekvence
+    private static final double SPECTRUM_MIN_DB = -100; // Spodní okraj zobrazení
+    private SpectrumAnalyzer analyzer; // FFT na pozadí
+    private int[] spectrumBins = new int[0]; // První pásmo pro každý sloupec pixelů (+ konec)
+    private final double[] spectrumX = new double[SCOPE_MAX_COLUMNS]; // x souřadnice polyline spektra
+    private final double[] spectrumY = new double[SCOPE_MAX_COLUMNS]; // y souřadnice polyline spektra
+
+    private static final long METRICS_INTERVAL_NANOS = 250_000_000L; // Interval aktualizace metrik
+    private long lastMetricsUpdate; // Čas poslední aktualizace metrik
+
     @FXML
     public void initialize() { // Metoda, která se volá při inicializaci kontroléru
         synthEngine = new SynthEngine(); // Inicializace zvukového enginu
         // Pro testování lze zapnout pevnou obálku:
         // synthEngine.setTestEnvelope(true);
+        midiInput = new MidiInput(synthEngine); // Noty, pitch bend a CC
         setupKnobs(); // Nastavení ovládacích knobů
         setupWaveButtons(); // Nastavení tlačítek pro výběr vln
         setupStartButton(); // Nastavení tlačítka pro start/zastavení
+        setupStatsButton(); // Nastavení přepínače metrik
+        setupBypassButton(); // Nastavení přepínače efektů
+        analyzer = new SpectrumAnalyzer(synthEngine.getTap(), synthEngine.getSampleRate()); // Spektrum z odposlechu výstupu
+        analyzer.start();
+        if (midiInput.connectAll() > 0) { // Všechna dostupná MIDI zařízení
+            startOutput(); // S připojenou klávesnicí výstup běží pořád, bez stisku Start
+        }
         startOscilloscope(); // Spuštění osciloskopu
     }
 
+    public void shutdown() { // Uvolnění zvukového výstupu při zavření okna
+        analyzer.close();
+        midiInput.close();
+        synthEngine.close();
+    }
+
     private void setupKnobs() { // Metoda pro nastavení ovládacích knobů
-        String[] knobs = {"Volume", "Tune", "Width", "Color", "Depth", "Attack", "Decay", "Sustain", "Release"}; // Seznam knobů
-        for (String knob : knobs) { // Pro každý knob v seznamu
-            RotatorControl rotator = new RotatorControl(knob); // Vytvoření nového otočného knobu
+        for (SynthParameter parameter : SynthParameter.values()) { // Pro každý parametr syntézy
+            RotatorControl rotator = new RotatorControl(parameter.getLabel()); // Vytvoření nového otočného knobu
             rotator.setMin(0); // Nastavení minimální hodnoty rotace
             rotator.setMax(270); // Nastavení maximální hodnoty rotace
 
-            double range = getParameterRange(knob); // Získání rozsahu pro aktuální knob
-            double initialRotation = (synthEngine.getParameter(knob.toLowerCase()) - getMinParameterValue(knob)) / range * 270; // Výpočet počáteční rotace
+            double range = parameter.getRange(); // Rozsah parametru
+            double initialRotation = (synthEngine.getParameter(parameter) - parameter.getMin()) / range * 270; // Výpočet počáteční rotace
             rotator.setKnobRotation(initialRotation); // Nastavení počáteční rotace knobu
 
-            // Přidání listeneru pro aktualizaci parametru zvuku při změně rotace knobu
+            // Přidání listeneru pro aktualizaci parametru zvuku při změně rotace knobu.
+            // Zápis je jen atomická operace; engine rychlé série změn sloučí a vyhladí rampou.
             rotator.knobRotationProperty().addListener((_, __, newValue) -> {
-                double value = newValue.doubleValue() / 270 * range + getMinParameterValue(knob); // Přepočet hodnoty na skutečný parametr
-                synthEngine.updateParameter(knob.toLowerCase(), value); // Aktualizace parametru ve zvukovém enginu
-                logger.log(Level.INFO, "Knob updated: " + knob + " = " + value); // Logování změny hodnoty knobu
+                double value = newValue.doubleValue() / 270 * range + parameter.getMin(); // Přepočet hodnoty na skutečný parametr
+                synthEngine.updateParameter(parameter, value); // Aktualizace parametru ve zvukovém enginu
             });
 
             knobContainer.getChildren().add(rotator); // Přidání knobu do kontejneru
         }
     }
 
-    private double getParameterRange(String knob) { // Metoda pro získání rozsahu pro každý knob
-        return switch (knob) {
-            case "Tune" -> 2000; // Rozsah pro ladění
-            case "Attack", "Decay", "Release" -> 2.0; // Rozsah pro obálku
-            default -> 1.0; // Rozsah pro ostatní knoby (0 až 1)
-        };
-    }
-
-    private double getMinParameterValue(String knob) { // Metoda pro získání minimální hodnoty parametru
-        if (knob.equals("Tune")) {
-            return -1000; // Minimální hodnota pro ladění
-        }
-        return 0; // Minimální hodnota pro ostatní knoby
-    }
-
     private void setupWaveButtons() { // Metoda pro nastavení tlačítek pro výběr vln
         sineButton.setOnAction(_ -> synthEngine.setWaveType("sine")); // Nastavení vlny na sínusovou
         squareButton.setOnAction(_ -> synthEngine.setWaveType("square")); // Nastavení vlny na obdélníkovou
         sawButton.setOnAction(_ -> synthEngine.setWaveType("saw")); // Nastavení vlny na pilovitou
     }
 
-    private void setupStartButton() { // Metoda pro nastavení tlačítka pro start/zastavení
+    private void setupStartButton() { // Tlačítko Start drží jednu notu na frekvenci tune, Stop ji uvolní
         startButton.setOnAction(_ -> { // Akce při kliknutí na tlačítko
-            if (synthEngine.isPlaying()) { // Pokud je zvuk aktivní
-                synthEngine.stop(); // Zastavení zvuku
+            if (startNoteHeld) { // Pokud nota zní
+                postStartNote(0x80, 0); // Uvolnění noty, výstup běží dál kvůli MIDI a dozvukům
                 startButton.setText("Start"); // Změna textu na "Start"
-            } else { // Pokud zvuk nehraje
-                synthEngine.start(); // Spuštění zvuku
+            } else { // Pokud nota nezní
+                startOutput(); // Výstup se spustí při prvním stisku, pokud ho nespustilo MIDI
+                postStartNote(0x90, 127); // Nota na frekvenci tune
                 startButton.setText("Stop"); // Změna textu na "Stop"
             }
+            startNoteHeld = !startNoteHeld;
         });
     }
 
+    // Nota tlačítka jde stejnou frontou jako MIDI vstup, takže UI vlákno nesoupeří s renderem o zámek hlasů
+    private void postStartNote(int status, int velocity) {
+        if (!synthEngine.postMidi(synthEngine.getClockNanos(), status, SynthEngine.DEFAULT_NOTE, velocity)) {
+            logger.log(Level.WARNING, "MIDI queue full, Start button note dropped");
+        }
+    }
+
+    private void startOutput() { // Spuštění výstupu, pokud ještě neběží
+        if (synthEngine.isPlaying()) {
+            return;
+        }
+        synthEngine.start(); // Spuštění zvuku
+        if (analyzer.getSampleRate() != synthEngine.getSampleRate()) { // Výstup se dohodl na jiné frekvenci
+            analyzer.close();
+            analyzer = new SpectrumAnalyzer(synthEngine.getTap(), synthEngine.getSampleRate());
+            analyzer.start();
+            spectrumBins = new int[0]; // Nové mapování sloupců na pásma
+        }
+    }
+
+    private void setupStatsButton() { // Metoda pro nastavení přepínače metrik
+        metricsLabel.visibleProperty().bind(statsButton.selectedProperty()); // Zobrazení jen při zapnutém přepínači
+        metricsLabel.managedProperty().bind(statsButton.selectedProperty()); // Skrytý popisek nezabírá místo
+    }
+
+    private void setupBypassButton() { // Knoby Delay a Reverb řídí podíl efektů, tlačítko celou sběrnici vyřadí
+        bypassButton.selectedProperty().addListener((_, __, selected) -> synthEngine.setEffectsBypass(selected));
+    }
+
+    private void updateMetrics(long now) { // Aktualizace metrik nejvýše 4× za sekundu
+        if (!statsButton.isSelected() || now - lastMetricsUpdate < METRICS_INTERVAL_NANOS) {
+            return;
+        }
+        lastMetricsUpdate = now;
+        SynthMetrics m = synthEngine.getMetrics();
+        metricsLabel.setText(String.format("DSP %5.1f %% (peak %5.1f %%) | block p50 %6.1f µs p99 %6.1f µs | xruns %d | voices %d | queue %d",
+                m.getDspLoadPercent(), m.getPeakDspLoadPercent(), m.getRenderTimeP50Micros(), m.getRenderTimeP99Micros(),
+                m.getUnderruns(), m.getActiveVoices(), m.getParameterQueueDepth()));
+    }
+
     private void startOscilloscope() { // Metoda pro spuštění osciloskopu
         GraphicsContext gc = oscilloscopeCanvas.getGraphicsContext2D(); // Získání grafického kontextu plátna
+        AudioTap tap = synthEngine.getTap(); // Odposlech vzorků, které audio vlákno skutečně vyrenderovalo
         AnimationTimer timer = new AnimationTimer() { // Vytvoření animace pro aktualizaci osciloskopu
             @Override
             public void handle(long now) { // Metoda, která se volá v každém snímku animace
-                double[] waveData = synthEngine.getWaveform(512); // Získání dat vlny ze zvukového enginu
+                tap.latest(scopeWindow, SCOPE_WINDOW); // Převzetí posledního okna vzorků (bez syntézy na FX vlákně)
+                int start = findTrigger(scopeWindow, SCOPE_WINDOW - SCOPE_SAMPLES); // Zarovnání na průchod nulou
                 gc.clearRect(0, 0, oscilloscopeCanvas.getWidth(), oscilloscopeCanvas.getHeight()); // Vymazání plátna
 
-                // Dynamické škálování: najdeme maximální absolutní hodnotu v bufferu
+                // Dynamické škálování: najdeme maximální absolutní hodnotu v zobrazeném úseku
                 double maxAmp = 0; // Inicializace proměnné pro maximální amplitudu
-                for (double v : waveData) { // Pro každou hodnotu ve waveData
-                    maxAmp = Math.max(maxAmp, Math.abs(v)); // Aktualizace maximální amplitudy
+                for (int i = start; i < start + SCOPE_SAMPLES; i++) {
+                    maxAmp = Math.max(maxAmp, Math.abs(scopeWindow[i])); // Aktualizace maximální amplitudy
                 }
                 // Pokud není amplituda nulová, spočítáme škálovací faktor
                 double scaleFactor = (maxAmp > 0) ? (oscilloscopeCanvas.getHeight() * 0.45) / maxAmp : 50; // Výpočet škálovacího faktoru
 
+                int points = decimate(start, scaleFactor); // Min/max na pixel – počet bodů nezávisí na počtu vzorků
                 gc.setStroke(Color.LIME); // Nastavení barvy čáry
                 gc.setLineWidth(2); // Nastavení šířky čáry
-                for (int i = 0; i < waveData.length - 1; i++) { // Pro každou hodnotu ve waveData
-                    double x1 = i * oscilloscopeCanvas.getWidth() / waveData.length; // Výpočet x pozice pro první bod
-                    double y1 = oscilloscopeCanvas.getHeight() / 2 - waveData[i] * scaleFactor; // Výpočet y pozice pro první bod
-                    double x2 = (i + 1) * oscilloscopeCanvas.getWidth() / waveData.length; // Výpočet x pozice pro druhý bod
-                    double y2 = oscilloscopeCanvas.getHeight() / 2 - waveData[i + 1] * scaleFactor; // Výpočet y pozice pro druhý bod
-                    gc.strokeLine(x1, y1, x2, y2); // Kreslení čáry mezi dvěma body
-                }
+                gc.strokePolyline(scopeX, scopeY, points); // Jediné volání místo čáry pro každý vzorek
+                drawSpectrum(); // Poslední spektrum spočítané na pozadí
+                updateMetrics(now); // Metriky výkonu, pokud jsou zapnuté
             }
         };
         timer.start(); // Spuštění animace
     }
+
+    private void drawSpectrum() { // Vykreslení posledního spektra (FX vlákno jen kreslí, FFT běží jinde)
+        GraphicsContext gc = spectrumCanvas.getGraphicsContext2D();
+        double width = spectrumCanvas.getWidth();
+        double height = spectrumCanvas.getHeight();
+        int columns = Math.min((int) width, spectrumX.length);
+        if (spectrumBins.length != columns + 1) {
+            spectrumBins = mapColumnsToBins(columns); // Jen při první kresbě nebo změně šířky
+        }
+        float[] bins = analyzer.latest(); // Atomická výměna, žádné kopírování
+        gc.clearRect(0, 0, width, height);
+
+        gc.setStroke(Color.gray(0.35)); // Mřížka po dekádách: 100 Hz, 1 kHz, 10 kHz
+        gc.setLineWidth(1);
+        for (double f = 100; f < analyzer.getSampleRate() / 2; f *= 10) {
+            double x = frequencyToX(f, width);
+            gc.strokeLine(x, 0, x, height);
+        }
+
+        for (int column = 0; column < columns; column++) {
+            float db = SpectrumAnalyzer.FLOOR_DB;
+            for (int bin = spectrumBins[column]; bin < spectrumBins[column + 1]; bin++) {
+                db = Math.max(db, bins[bin]); // Maximum pásem ve sloupci – úzké špičky (aliasing) nezmizí
+            }
+            spectrumX[column] = column * width / columns;
+            spectrumY[column] = Math.min(height, db / SPECTRUM_MIN_DB * height); // 0 dB nahoře
+        }
+        gc.setStroke(Color.CYAN);
+        gc.setLineWidth(1.5);
+        gc.strokePolyline(spectrumX, spectrumY, columns);
+    }
+
+    // Rozsah pásem FFT pro každý sloupec pixelů na logaritmické ose; každý sloupec má aspoň jedno pásmo
+    private int[] mapColumnsToBins(int columns) {
+        int[] map = new int[columns + 1];
+        double binWidth = analyzer.getSampleRate() / SpectrumAnalyzer.FFT_SIZE;
+        for (int column = 0; column <= columns; column++) {
+            double f = SPECTRUM_MIN_HZ * Math.pow(analyzer.getSampleRate() / 2 / SPECTRUM_MIN_HZ, (double) column / columns);
+            map[column] = Math.min(SpectrumAnalyzer.BINS - 1, (int) Math.round(f / binWidth));
+        }
+        for (int column = 0; column < columns; column++) {
+            map[column + 1] = Math.max(map[column + 1], Math.min(map[column] + 1, SpectrumAnalyzer.BINS));
+        }
+        return map;
+    }
+
+    private double frequencyToX(double frequency, double width) { // Poloha frekvence na logaritmické ose
+        return Math.log(frequency / SPECTRUM_MIN_HZ) / Math.log(analyzer.getSampleRate() / 2 / SPECTRUM_MIN_HZ) * width;
+    }
+
+    // Hledá vzestupný průchod nulou v prvních limit vzorcích, aby obraz stál na místě; jinak vrací 0
+    private static int findTrigger(float[] samples, int limit) {
+        for (int i = 1; i < limit; i++) {
+            if (samples[i - 1] < 0 && samples[i] >= 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    // Decimace zobrazeného úseku: pro každý sloupec pixelů minimum a maximum; vrací počet bodů polyline
+    private int decimate(int start, double scaleFactor) {
+        double width = oscilloscopeCanvas.getWidth(); // Šířka plátna
+        double centerY = oscilloscopeCanvas.getHeight() / 2; // Střed plátna
+        int columns = Math.min((int) width, scopeX.length / 2); // Počet sloupců pixelů
+        int points = 0;
+        for (int column = 0; column < columns; column++) {
+            int from = start + column * SCOPE_SAMPLES / columns; // První vzorek sloupce
+            int to = Math.max(from + 1, start + (column + 1) * SCOPE_SAMPLES / columns); // Konec sloupce
+            float min = scopeWindow[from], max = scopeWindow[from];
+            for (int i = from + 1; i < to; i++) {
+                min = Math.min(min, scopeWindow[i]);
+                max = Math.max(max, scopeWindow[i]);
+            }
+            double x = column * width / columns; // x pozice sloupce
+            scopeX[points] = x;
+            scopeY[points++] = centerY - max * scaleFactor; // Horní bod sloupce
+            scopeX[points] = x;
+            scopeY[points++] = centerY - min * scaleFactor; // Dolní bod sloupce
+        }
+        return points;
+    }
 }
@@ -1,184 +1,545 @@
 package org.example.syntak;
 
 import javax.sound.sampled.*; // Import pro práci se zvukovými operacemi
+import javax.management.JMException; // Import pro chyby při registraci MBeanu
+import javax.management.MBeanServer; // Import pro registraci metrik v JMX
+import javax.management.ObjectName; // Import pro jméno MBeanu
+import java.lang.management.ManagementFactory; // Import pro platformní MBean server
+import java.nio.ByteBuffer; // Import pro zápis PCM vzorků do bufferu
+import java.util.concurrent.ForkJoinPool; // Import pro pool paralelního renderu hlasů
+import java.util.concurrent.atomic.AtomicInteger; // Import pro číslování instancí v JMX
+import java.util.concurrent.atomic.AtomicReferenceArray; // Import pro mapování MIDI CC na parametry
+import java.util.function.LongSupplier; // Import pro zdroj času (nahraditelný v testech)
 import java.util.logging.Level; // Import pro úroveň logování
 import java.util.logging.Logger; // Import pro logování
 
 public class SynthEngine { // Třída SynthEngine zajišťující generaci zvuku
 
     private String waveType = "sine"; // Typ vlny (výchozí je sínusová)
-    private boolean playing = false; // Stav, zda se zvuk přehrává
+    private volatile Oscillator oscillator = Oscillator.SINE; // Předvybraná strategie oscilátoru pro aktuální typ vlny
+    private volatile boolean playing = false; // Stav, zda se zvuk přehrává
     public FloatControl volumeControl; // Ovladač pro hlasitost
-    private SourceDataLine line; // Zvuková linka pro přehrávání zvuku
-
-    // Parametry syntézy
-    private double volume = 1.0;   // Hlasitost v rozsahu 0.0 až 1.0
-    private double tune = 440.0;    // Frekvence v Hz; interní rozsah -1000 až 1000
-    private double width = 1.0;     // 0.0 až 1.0 – ovlivňuje duty cycle u čtvercové vlny
-    private double color = 1.0;     // 0.0 až 1.0 – ovlivňuje mix sinusové a kosinusové složky (změna timbře)
-    private double depth = 1.0;     // 0.0 až 1.0 – u pilovité vlny přidává harmonickou složku
-    private double attack = 0.1;    // Čas v sekundách (0 až 2) pro fázi nástupu
-    private double decay = 0.1;     // Čas v sekundách (0 až 2) pro fázi poklesu
-    private double sustain = 1.0;   // Udržovací úroveň v rozsahu 0.0 až 1.0
-    private double release = 0.1;   // Čas v sekundách (0 až 2) pro fázi uvolnění
-
-    // Fáze – kontinuálně narůstá mezi buffery (nikoli resetována)
-    private double phase = 0.0; // Aktuální fáze signálu
-    private final double sampleRate = 44100.0; // Vzorkovací frekvence
+    private AudioOutput output; // Výstup na zvukovou kartu (otevírá se při prvním startu a pak se znovu používá)
+    private int periodFrames = AudioOutput.DEFAULT_PERIOD_FRAMES; // Velikost periody výstupu ve snímcích
+    private int periodCount = AudioOutput.DEFAULT_PERIOD_COUNT; // Počet period v bufferu výstupu
+
+    // Parametry syntézy (rozsahy a výchozí hodnoty viz SynthParameter).
+    // UI vlákno zapisuje do schránky, audio vlákno si změny přebírá na začátku bloku a vyhlazuje je rampou.
+    private final ParameterMailbox mailbox = new ParameterMailbox(); // Předávání změn mezi vlákny bez zámků
+    private final ParameterSmoother[] smoothers = new ParameterSmoother[SynthParameter.values().length]; // Stav na straně audio vlákna
+
+    // Během rampy se blok dělí na úseky této délky, aby se parametry měnily plynule
+    static final int CONTROL_BLOCK = 64;
+
+    private volatile double sampleRate = 44100.0; // Vzorkovací frekvence (mění se jen mimo přehrávání)
+    private AudioFormat requestedFormat = PcmConverter.format(44100, 16, false, 1, true); // Požadovaný formát výstupu
+    private volatile AudioFormat outputFormat = requestedFormat; // Skutečný formát (po dohodě se systémem)
+
+    // Polyfonie – předalokované hlasy, každý s vlastní fází a obálkou
+    public static final int DEFAULT_MAX_VOICES = 64; // Výchozí počet hlasů
+    public static final int DEFAULT_NOTE = 69; // Nota tlačítka Start (A4 = frekvence tune)
+    private final VoicePool voices; // Sada hlasů
+    private final VoiceParameters params = new VoiceParameters(); // Snímek parametrů pro aktuální blok
+    private final EffectsBus effects = new EffectsBus(sampleRate); // Delay a dozvuk za mixem hlasů
+    private double delayMix, reverbMix; // Podíly efektů pro aktuální úsek
+
+    // MIDI – události s časovou značkou se v bloku použijí na odpovídajícím vzorku
+    public static final int MIDI_QUEUE_CAPACITY = 1024; // Počet událostí, které se vejdou mezi dva bloky
+    public static final double PITCH_BEND_SEMITONES = 2; // Rozsah ohýbání výšky
+    private final MidiEventQueue midiEvents = new MidiEventQueue(MIDI_QUEUE_CAPACITY);
+    private final AtomicReferenceArray<SynthParameter> controllers = new AtomicReferenceArray<>(128); // CC → parametr
+    private volatile LongSupplier clock = System::nanoTime; // Hodiny pro časové značky a okno bloku
+    private volatile long midiLatencyNanos; // Pevné zpoždění MIDI událostí při renderu na linku (buffer linky + perioda)
+    private double pitchBend = 1.0; // Poměr ohnutí výšky (jen audio vlákno)
+
+    // Odposlech výstupu pro zobrazení – osciloskop čte to, co audio vlákno skutečně vyrenderovalo
+    public static final int TAP_CAPACITY = 8192; // Počet uchovávaných vzorků
+    private final AudioTap tap = new AudioTap(TAP_CAPACITY);
+
+    // Metriky výkonu audio vlákna; při startu se registrují jako MBean
+    private final SynthMetrics metrics = new SynthMetrics(this);
+    private static final AtomicInteger instances = new AtomicInteger(); // Čítač pro jedinečná jména MBeanů
+    private ObjectName metricsName; // Jméno registrovaného MBeanu, null pokud není registrován
 
     // Pokud je nastaveno na true, tak se obálka (envelope) ignoruje a používá se pevná hodnota 1.0 – vhodné při testování
-    private boolean testEnvelope = false;
+    private volatile boolean testEnvelope = false;
+    private volatile double filterCutoff = Double.POSITIVE_INFINITY; // Filtr hlasu v režimu grafu
+    private volatile double filterResonance;
+    private volatile double lfoRate = 5.0;  // LFO hlasu v režimu grafu
+    private volatile double lfoDepth;
+
+    // Pracovní buffer pro render do PCM – alokuje se jen při prvním použití nebo zvětšení bloku
+    private float[] scratch = new float[0];
+    private final PcmConverter pcm = new PcmConverter(); // Převod na PCM pro výstupní linku
 
     private static final Logger logger = Logger.getLogger(SynthEngine.class.getName()); // Logger pro záznam událostí
 
     public SynthEngine() { // Konstruktor třídy
-        initAudioLine(); // Inicializace zvukové linky
+        this(DEFAULT_MAX_VOICES);
     }
 
-    private void initAudioLine() { // Metoda pro inicializaci zvukové linky
-        try {
-            AudioFormat format = new AudioFormat((float) sampleRate, 16, 1, true, true); // Nastavení formátu zvuku
-            DataLine.Info info = new DataLine.Info(SourceDataLine.class, format); // Informace o datové lince
-            line = (SourceDataLine) AudioSystem.getLine(info); // Získání zvukové linky
-            line.open(format); // Otevření linky
-            line.start(); // Spuštění linky
-            volumeControl = (FloatControl) line.getControl(FloatControl.Type.MASTER_GAIN); // Získání ovladače hlasitosti
-        } catch (LineUnavailableException e) {
-            logger.log(Level.SEVERE, "Audio line unavailable", e); // Záznam chyby, pokud není linka k dispozici
+    public SynthEngine(int maxVoices) { // Konstruktor s daným počtem hlasů
+        this(maxVoices, ForkJoinPool.commonPool());
+    }
+
+    // Konstruktor s vlastním poolem pro paralelní render hlasů (např. sdíleným s dávkovým renderem)
+    public SynthEngine(int maxVoices, ForkJoinPool voicePool) {
+        voices = new VoicePool(maxVoices, voicePool); // Hlasy se alokují jen jednou
+        for (SynthParameter p : SynthParameter.values()) {
+            smoothers[p.ordinal()] = new ParameterSmoother(p.getDefaultValue()); // Výchozí hodnoty bez rampy
+        }
+        // Výchozí mapování MIDI CC na knoby (zvukové a efektové kontrolery podle GM2)
+        controllers.set(7, SynthParameter.VOLUME);
+        controllers.set(76, SynthParameter.TUNE);
+        controllers.set(70, SynthParameter.WIDTH);
+        controllers.set(74, SynthParameter.COLOR);
+        controllers.set(71, SynthParameter.DEPTH);
+        controllers.set(73, SynthParameter.ATTACK);
+        controllers.set(75, SynthParameter.DECAY);
+        controllers.set(79, SynthParameter.SUSTAIN);
+        controllers.set(72, SynthParameter.RELEASE);
+        controllers.set(94, SynthParameter.DELAY);
+        controllers.set(91, SynthParameter.REVERB);
+        // Zvuková linka se otevírá až ve start(), takže engine jde použít i bez zvukového zařízení (offline render)
+    }
+
+    // Nastavení bufferování výstupu (např. 220 snímků ≈ 5 ms při 44,1 kHz); běžící výstup se hned otevře znovu
+    public synchronized void setOutputBuffering(int periodFrames, int periodCount) {
+        this.periodFrames = periodFrames;
+        this.periodCount = periodCount;
+        if (output != null && (output.getPeriodFrames() != periodFrames || output.getPeriodCount() != periodCount)) {
+            releaseOutput();
+        }
+    }
+
+    // Zavření výstupu, jehož nastavení už neplatí; běžící výstup se zastaví a hned otevře s novým nastavením.
+    // Hlasy a efekty přitom běží dál, přehrávání jen krátce vypadne.
+    private void releaseOutput() {
+        boolean wasPlaying = playing;
+        if (wasPlaying) {
+            playing = false;
+            output.stop(); // Render vlákno skončí, render teď neběží
+        }
+        output.close();
+        output = null;
+        if (wasPlaying) {
+            start(); // Nové vyjednání formátu a linka s novým bufferem
         }
     }
 
+    public AudioOutput getOutput() { // Výstup na zvukovou kartu, null dokud nebyl engine spuštěn
+        return output;
+    }
+
+    public AudioFormat getOutputFormat() { // Formát výstupní linky (po startu ten, na kterém se systém dohodl)
+        return outputFormat;
+    }
+
+    // Požadovaný formát výstupu (44,1/48/96 kHz, 16/24/32 bitů nebo float, kanály, pořadí bajtů).
+    // Při (dalším) startu se vybere nejbližší formát, který systém podporuje, a engine přejde na jeho frekvenci;
+    // běžící výstup se otevře znovu hned.
+    public synchronized void setOutputFormat(AudioFormat preferred) {
+        if (!PcmConverter.isSupported(preferred)) {
+            throw new IllegalArgumentException("Nepodporovaný formát výstupu: " + preferred);
+        }
+        requestedFormat = preferred;
+        if (!playing) {
+            outputFormat = preferred; // Při přehrávání ho nastaví start() podle vyjednané linky
+        }
+        if (output != null) {
+            releaseOutput();
+        }
+    }
+
+    // Vzorkovací frekvence renderu bez zvukové linky (offline render); při přehrávání ji určuje výstup
+    public synchronized void setSampleRate(double sampleRate) {
+        if (playing) {
+            throw new IllegalStateException("Vzorkovací frekvenci nelze měnit během přehrávání");
+        }
+        applySampleRate(sampleRate);
+    }
+
+    // Přepočet všeho, co závisí na frekvenci; render v tu chvíli neběží
+    private void applySampleRate(double sampleRate) {
+        if (sampleRate == this.sampleRate) {
+            return;
+        }
+        this.sampleRate = sampleRate;
+        effects.setSampleRate(sampleRate); // Buffer delaye a odezva dozvuku
+        voices.setSampleRate(sampleRate);  // Uzly grafů hlasů
+        // Inkrementy fáze, přírůstky obálek a délky ramp se počítají z aktuální frekvence při dalším bloku
+    }
+
     public void setWaveType(String waveType) { // Metoda pro nastavení typu vlny
         this.waveType = waveType.toLowerCase(); // Převedení typu na malé písmeno
+        this.oscillator = Oscillator.forType(this.waveType); // Výběr strategie jednou, ne pro každý vzorek
     }
 
-    public void start() { // Metoda pro spuštění zvuku
+    // Spuštění výstupu na zvukovou kartu; sám nic nehraje, noty přicházejí z MIDI nebo noteOn()
+    public synchronized void start() {
         if (!playing) { // Pokud zvuk nehraje
-            playing = true; // Nastavení stavu na hrající
-            initAudioLine(); // Znovu inicializace linky při spuštění
-            new Thread(this::generateSound, "SynthSoundThread").start(); // Spuštění generování zvuku v novém vlákně
+            try {
+                if (output == null) {
+                    AudioFormat format = AudioOutput.negotiate(requestedFormat); // Formát podle možností systému
+                    applySampleRate(format.getSampleRate());
+                    outputFormat = format;
+                    output = new AudioOutput(format, periodFrames, periodCount); // Linka se otevře jen jednou
+                }
+                effects.prepare(); // Efekty vzniknou tady, aby první otočení knobu nealokovalo v audio vlákně
+                discardMidiEvents(); // Zprávy přijaté během zastavení by zazněly všechny najednou
+                output.open();
+                midiLatencyNanos = (long) ((output.getLatencySeconds() + output.getPeriodFrames() / sampleRate) * 1e9);
+                output.start(this::render, this::getClockNanos); // Render vlákno drží linku o několik period napřed
+                registerMetrics(); // Metriky pro JConsole / JMC
+                volumeControl = output.getVolumeControl(); // Získání ovladače hlasitosti
+                playing = true; // Nastavení stavu na hrající
+            } catch (LineUnavailableException e) {
+                logger.log(Level.SEVERE, "Audio line unavailable", e); // Záznam chyby, pokud není linka k dispozici
+            }
         }
     }
 
-    public void stop() { // Metoda pro zastavení zvuku
+    public synchronized void stop() { // Metoda pro zastavení zvuku
         playing = false; // Nastavení stavu na nehrájící
+        if (output != null) {
+            output.stop(); // Vlákno skončí, linka zůstane otevřená pro další start
+        }
+        voices.reset(); // Umlčení všech hlasů
+        effects.reset(); // Bez dozvuků z minulého přehrávání
+    }
+
+    public synchronized void close() { // Uvolnění zvukové linky
+        stop();
+        if (output != null) {
+            output.close();
+            output = null;
+        }
+        if (metricsName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(metricsName);
+            } catch (JMException e) {
+                logger.log(Level.FINE, "Metrics MBean already unregistered", e);
+            }
+            metricsName = null;
+        }
+    }
+
+    // Registrace metrik v JMX (jen pro živý výstup – offline instance se neregistrují)
+    private void registerMetrics() {
+        if (metricsName != null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("org.example.syntak:type=SynthEngine,name=engine-" + instances.incrementAndGet());
+            server.registerMBean(metrics, name);
+            metricsName = name;
+        } catch (JMException e) {
+            logger.log(Level.WARNING, "Metrics MBean could not be registered", e); // Přehrávání funguje i bez metrik
+        }
+    }
+
+    public SynthMetrics getMetrics() { // Metriky výkonu (i bez JMX, např. pro UI)
+        return metrics;
+    }
+
+    public int getRenderedVoiceCount() { // Počet hlasů v posledním bloku, bez čekání na zámek
+        return voices.getRenderedVoiceCount();
+    }
+
+    public void noteOn(int note, double velocity) { // Spuštění noty (MIDI číslo, síla úhozu 0 až 1)
+        voices.noteOn(note, Math.max(0, Math.min(velocity, 1)));
+    }
+
+    public void noteOff(int note) { // Uvolnění noty
+        voices.noteOff(note);
+    }
+
+    public void allNotesOff() { // Uvolnění všech not
+        voices.allNotesOff();
+    }
+
+    // Hlasy jako graf jednotkových generátorů zapojený builderem (např. VoiceGraphBuilder.STANDARD);
+    // null = pevně zapojené hlasy. Filtr a LFO (setFilter, setLfo) působí jen v režimu grafu.
+    public void setVoiceGraph(VoiceGraphBuilder builder) {
+        voices.setVoiceGraph(builder, sampleRate);
+    }
+
+    public VoiceGraphBuilder getVoiceGraph() {
+        return voices.getVoiceGraph();
+    }
+
+    public void setFilter(double cutoff, double resonance) { // Filtr hlasu (jen v režimu grafu)
+        this.filterCutoff = cutoff;
+        this.filterResonance = resonance;
+    }
+
+    public void setLfo(double rate, double depthOctaves) { // Modulace výšky LFO (jen v režimu grafu)
+        this.lfoRate = rate;
+        this.lfoDepth = depthOctaves;
+    }
+
+    public void setEffectsBypass(boolean bypass) { // Vyřazení sběrnice efektů (s plynulým stažením podílu)
+        effects.setBypass(bypass);
+    }
+
+    public boolean isEffectsBypass() {
+        return effects.isBypass();
+    }
+
+    public void setDelay(double seconds, double feedback) { // Čas a zpětná vazba delaye
+        effects.setDelay(seconds, feedback);
+    }
+
+    // Zařazení krátké MIDI zprávy s časovou značkou v ns podle getClockNanos(); volat lze z libovolného vlákna.
+    // Render ji použije na vzorku odpovídajícím jejímu času v rámci posledního bloku. false = plná fronta.
+    public boolean postMidi(long timeNanos, int status, int data1, int data2) {
+        return midiEvents.offer(timeNanos, MidiEventQueue.pack(status, data1, data2));
+    }
+
+    public int getPendingMidiEvents() { // Počet MIDI událostí, které render ještě nepoužil
+        return midiEvents.size();
+    }
+
+    public long getClockNanos() { // Aktuální čas hodin enginu
+        return clock.getAsLong();
+    }
+
+    // Náhrada hodin (např. pevný čas v testech); výchozí jsou System.nanoTime
+    public void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    // Přiřazení MIDI kontroleru (0–127) k parametru; null mapování zruší
+    public void setControllerMapping(int controller, SynthParameter parameter) {
+        controllers.set(controller, parameter);
+    }
+
+    public SynthParameter getControllerMapping(int controller) {
+        return controllers.get(controller);
+    }
+
+    public void setVoiceStealing(VoiceStealing stealing) { // Nastavení pravidla krádeže hlasů
+        voices.setStealing(stealing);
+    }
+
+    public int getActiveVoiceCount() { // Počet právě znějících hlasů
+        return voices.getActiveVoiceCount();
     }
 
     protected boolean isPlaying() { // Metoda pro kontrolu, zda zvuk hraje
         return playing; // Vrací aktuální stav přehrávání
     }
 
-    public double getParameter(String parameter) { // Metoda pro získání hodnoty parametru
-        return switch (parameter) { // Přepínač pro vrácení hodnoty na základě názvu parametru
-            case "volume" -> volume;
-            case "tune" -> tune;
-            case "width" -> width;
-            case "color" -> color;
-            case "depth" -> depth;
-            case "attack" -> attack;
-            case "decay" -> decay;
-            case "sustain" -> sustain;
-            case "release" -> release;
-            default -> 0; // Výchozí hodnota, pokud není parametr nalezen
-        };
-    }
-
-    public void updateParameter(String parameter, double value) { // Metoda pro aktualizaci hodnoty parametru
-        switch (parameter) { // Přepínač pro aktualizaci hodnoty na základě názvu parametru
-            case "volume": volume = Math.max(0, Math.min(value, 1)); break; // Omezit hodnotu hlasitosti na 0 až 1
-            case "tune":
-                tune = Math.max(-1000, Math.min(value, 1000)); // Omezit ladění na -1000 až 1000
-                // Upozornění: Pokud je absolutní hodnota tune blízko Nyquistovy frekvence (sampleRate/2), může dojít k aliasingu.
-                if (Math.abs(tune) > sampleRate / 2 * 0.9) {
-                    logger.log(Level.WARNING, "Tune je nastaveno příliš vysoko a může dojít k aliasingu!"); // Záznam varování
-                }
-                break;
-            case "width": width = Math.max(0, Math.min(value, 1)); break; // Omezit šířku na 0 až 1
-            case "color": color = Math.max(0, Math.min(value, 1)); break; // Omezit barvu na 0 až 1
-            case "depth": depth = Math.max(0, Math.min(value, 1)); break; // Omezit hloubku na 0 až 1
-            case "attack": attack = Math.max(0, Math.min(value, 2)); break; // Omezit attack na 0 až 2 sekundy
-            case "decay": decay = Math.max(0, Math.min(value, 2)); break; // Omezit decay na 0 až 2 sekundy
-            case "sustain": sustain = Math.max(0, Math.min(value, 1)); break; // Omezit sustain na 0 až 1
-            case "release": release = Math.max(0, Math.min(value, 2)); break; // Omezit release na 0 až 2 sekundy
+    public double getSampleRate() { // Vzorkovací frekvence výstupu
+        return sampleRate;
+    }
+
+    public double getParameter(SynthParameter parameter) { // Poslední nastavená hodnota parametru
+        return mailbox.get(parameter);
+    }
+
+    // Nastavení parametru z libovolného vlákna; bez zámků, rychlé série změn se sloučí do poslední hodnoty
+    public void updateParameter(SynthParameter parameter, double value) {
+        double clamped = parameter.clamp(value); // Omezení na povolený rozsah
+        if (parameter == SynthParameter.TUNE && Math.abs(clamped) > sampleRate / 2 * 0.9
+                && Math.abs(mailbox.get(parameter)) <= sampleRate / 2 * 0.9) {
+            // Upozornění jen při překročení hranice, ne při každé změně
+            logger.log(Level.WARNING, "Tune je nastaveno příliš vysoko a může dojít k aliasingu!"); // Záznam varování
+        }
+        if (clamped > 0 && parameter == SynthParameter.DELAY) {
+            effects.prepareDelay(); // Při přehrávání už existuje (start), jinak se vytvoří tady, ne v renderu
+        } else if (clamped > 0 && parameter == SynthParameter.REVERB) {
+            effects.prepareReverb();
         }
+        mailbox.post(parameter, clamped);
     }
 
-    private void generateSound() { // Metoda pro generování zvuku
-        byte[] buffer = new byte[4096]; // 4096 bajtů = 2048 vzorků
-        try {
-            while (playing) { // Dokud zvuk hraje
-                double[] waveData = getWaveform(buffer.length / 2); // Získání dat vlny
-                for (int i = 0; i < buffer.length; i += 2) { // Pro každý vzorek
-                    int sample = (int) (waveData[i / 2] * 32767); // Převedení hodnoty vlny na vzorek
-                    buffer[i] = (byte) (sample & 0xFF); // Uložení spodního bajtu vzorku
-                    buffer[i + 1] = (byte) ((sample >> 8) & 0xFF); // Uložení horního bajtu vzorku
-                }
-                line.write(buffer, 0, buffer.length); // Zápis bufferu do zvukové linky
+    public double getParameter(String parameter) { // Varianta podle textového názvu (např. "tune")
+        SynthParameter p = SynthParameter.fromName(parameter);
+        return p == null ? 0 : getParameter(p); // Výchozí hodnota, pokud není parametr nalezen
+    }
+
+    public void updateParameter(String parameter, double value) { // Varianta podle textového názvu (např. "tune")
+        SynthParameter p = SynthParameter.fromName(parameter);
+        if (p != null) {
+            updateParameter(p, value);
+        }
+    }
+
+    public int getPendingParameterUpdates() { // Počet změn parametrů, které audio vlákno ještě nepřevzalo
+        return mailbox.pending();
+    }
+
+    // Vyrenderuje zbývající místo v bufferu ve formátu výstupu (getOutputFormat); v ustáleném stavu bez alokací
+    public void render(ByteBuffer target) {
+        long blockNanos = (long) (target.remaining() / outputFormat.getFrameSize() * 1e9 / sampleRate);
+        render(target, clock.getAsLong() - blockNanos + midiLatencyNanos); // Okno MIDI končí teď, jako u render(out, ...)
+    }
+
+    // Jako render(target) pro blok, který na výstupu zazní v čase playbackNanos (hodiny enginu);
+    // MIDI události se umístí o pevnou latenci výstupu dřív, takže nezávisí na tom, kdy render vlákno zrovna běží
+    public void render(ByteBuffer target, long playbackNanos) {
+        AudioFormat format = outputFormat;
+        int frames = target.remaining() / format.getFrameSize(); // Počet snímků, které se vejdou
+        if (scratch.length < frames) {
+            scratch = new float[frames]; // Zvětšení pracovního bufferu jen při větším bloku
+        }
+        render(scratch, 0, frames, playbackNanos - midiLatencyNanos); // Výpočet vzorků do pracovního bufferu
+        pcm.convert(scratch, 0, frames, format, target); // Hromadný převod do PCM/float (SIMD, je-li k dispozici)
+    }
+
+    // Vyrenderuje mix všech hlasů (length vzorků) do bufferu volajícího; nic nealokuje.
+    // Blok pokrývá časové okno délky bloku končící teď, zpoždění MIDI je tedy jeden blok.
+    public void render(float[] out, int offset, int length) {
+        render(out, offset, length, clock.getAsLong() - (long) (length * 1e9 / sampleRate));
+    }
+
+    // Jako render(out, offset, length) pro okno MIDI událostí začínající v čase windowStart (hodiny enginu);
+    // události z okna se umístí na svůj vzorek, pozdní na začátek bloku
+    public void render(float[] out, int offset, int length, long windowStart) {
+        long started = System.nanoTime(); // Začátek měření doby renderu
+        applyParameterUpdates(true); // Převzetí změn z UI vlákna na hranici bloku
+        params.oscillator = oscillator;
+        params.testEnvelope = testEnvelope;
+        params.sampleRate = sampleRate;
+        params.filterCutoff = filterCutoff;
+        params.filterResonance = filterResonance;
+        params.lfoRate = lfoRate;
+        params.lfoDepth = lfoDepth;
+
+        double samplesPerNano = sampleRate / 1e9;
+
+        int done = 0;
+        while (done < length) {
+            int eventAt = applyMidiEvents(done, windowStart, samplesPerNano, length); // Události do aktuálního vzorku
+            // Bez rampy se renderuje celý blok najednou, během rampy po krátkých úsecích; úsek končí na další události
+            int n = isRamping() ? Math.min(CONTROL_BLOCK, eventAt - done) : eventAt - done;
+            snapshotParameters(n);
+            voices.render(out, offset + done, n, params); // Render a mix hlasů (při mnoha hlasech paralelně)
+            effects.process(out, offset + done, n, delayMix, reverbMix); // Sběrnice efektů
+            done += n;
+        }
+        tap.publish(out, offset, length); // Zveřejnění bloku pro osciloskop
+        metrics.recordBlock(System.nanoTime() - started, length, sampleRate); // Doba renderu vůči rozpočtu bloku
+    }
+
+    public AudioTap getTap() { // Odposlech posledních vyrenderovaných vzorků
+        return tap;
+    }
+
+    // Převezme čekající změny parametrů okamžitě, bez rampy (nastavení patche před offline renderem).
+    // Volat jen tehdy, když současně neběží audio vlákno.
+    public void settleParameters() {
+        applyParameterUpdates(false);
+    }
+
+    // Zahození čekajících MIDI událostí; jen když render neběží (fronta má jediného čtenáře)
+    private void discardMidiEvents() {
+        while (midiEvents.peekTime() != Long.MAX_VALUE) {
+            midiEvents.take();
+        }
+    }
+
+    // Provede MIDI události, jejichž vzorek už nastal; vrací pozici další události v bloku (nebo length)
+    private int applyMidiEvents(int position, long windowStart, double samplesPerNano, int length) {
+        while (true) {
+            long time = midiEvents.peekTime();
+            if (time == Long.MAX_VALUE) {
+                return length;
             }
-        } catch (Exception e) {
-            logger.log(Level.SEVERE, "Error while generating sound", e); // Záznam chyby při generování zvuku
-        } finally {
-            if (line != null) { // Kontrola, zda je zvuková linka inicializována
-                line.stop(); // Zastavení linky
-                line.close(); // Uzavření linky
-                line = null; // Uvolnění reference na linku
+            long at = Math.max(0, Math.round((time - windowStart) * samplesPerNano)); // Pozdní událost = hned
+            if (at > position) {
+                return (int) Math.min(at, length); // Mimo blok – počká na další
             }
+            handleMidi(midiEvents.take());
         }
     }
 
-    public double[] getWaveform(int sampleCount) { // Metoda pro získání vlnové formy
-        double[] wave = new double[sampleCount]; // Pole pro vzorky vlny
-        double increment = (2 * Math.PI * tune) / sampleRate; // Výpočet inkrementu pro fázi
-        double envTotalTime = attack + decay + release; // Celkový čas obálky
-
-        for (int i = 0; i < sampleCount; i++) { // Pro každý vzorek
-            // Výpočet obálky – v testovacím režimu se používá pevná hodnota 1.0
-            double env;
-            if (testEnvelope) {
-                env = 1.0; // Pevná hodnota pro testovací režim
-            } else {
-                double tEnv = (i / (double) sampleCount) * envTotalTime; // Výpočet času obálky
-                if (tEnv < attack) {
-                    env = tEnv / attack; // Nástup
-                } else if (tEnv < attack + decay) {
-                    env = 1 - ((tEnv - attack) / decay) * (1 - sustain); // Pokles
-                } else if (tEnv < envTotalTime) {
-                    env = sustain * (1 - ((tEnv - (attack + decay)) / release)); // Udržení
+    // Zpracování jedné krátké MIDI zprávy (omni – kanál se ignoruje)
+    private void handleMidi(int message) {
+        int status = message & 0xF0;
+        int data1 = (message >> 8) & 0x7F;
+        int data2 = (message >> 16) & 0x7F;
+        switch (status) {
+            case 0x90 -> {
+                if (data2 > 0) {
+                    voices.noteOn(data1, data2 / 127.0);
                 } else {
-                    env = sustain; // Konec obálky
+                    voices.noteOff(data1); // Note on s nulovou silou = note off
                 }
             }
-
-            double value; // Proměnná pro hodnotu vlny
-            switch (waveType) { // Přepínač pro různé typy vln
-                case "sine" -> {
-                    // Míchání sinus a kosinus na základě parametru color; normalizace, aby amplituda zůstala 1.
-                    double s = Math.sin(phase); // Sínusová složka
-                    double c = Math.cos(phase); // Kosinusová složka
-                    double mix = (1 - color) * s + color * c; // Míchání
-                    double norm = Math.sqrt((1 - color) * (1 - color) + color * color); // Normalizace
-                    value = mix / norm; // Výsledná hodnota
-                }
-                case "square" -> {
-                    // Proměnná duty cycle určená parametrem width.
-                    double period = 2 * Math.PI; // Délka periody
-                    double currentPhase = phase % period; // Aktuální fáze
-                    value = (currentPhase < period * width) ? 1 : -1; // Čtvercová vlna
-                }
-                case "saw" -> {
-                    // Základní saw wave + přidána druhá harmonická složka modifikovaná parametrem depth.
-                    double period = 2 * Math.PI; // Délka periody
-                    double currentPhase = phase % period; // Aktuální fáze
-                    value = 2 * (currentPhase / period) - 1; // Generování pilovité vlny
-                    value += depth * 0.5 * Math.sin(2 * phase); // Přidání druhé harmonické složky
-                    // Omezíme výslednou amplitudu na rozsah -1 až 1
-                    value = Math.max(-1, Math.min(value, 1)); // Omezit hodnotu
+            case 0x80 -> voices.noteOff(data1);
+            case 0xE0 -> {
+                int bend = (data2 << 7 | data1) - 8192; // 14 bitů, střed 8192
+                pitchBend = Math.pow(2, bend / 8192.0 * PITCH_BEND_SEMITONES / 12);
+            }
+            case 0xB0 -> {
+                if (data1 == 120) {
+                    voices.reset(); // All sound off
+                } else if (data1 == 123) {
+                    voices.allNotesOff(); // All notes off
+                } else {
+                    SynthParameter p = controllers.get(data1);
+                    if (p != null) {
+                        updateParameter(p, p.getMin() + data2 / 127.0 * p.getRange());
+                        applyParameterUpdates(true); // Rampa začne přesně na vzorku události
+                    }
                 }
-                default -> value = 0.0; // Výchozí hodnota
             }
-            wave[i] = volume * value * env; // Uložení vzorku do pole
-            phase += increment; // Aktualizace fáze
-            // Odstraněno "resetování" fáze – phase kontinuálně narůstá napříč buffery
+            default -> {
+                // Ostatní zprávy (aftertouch, program change …) engine nepoužívá
+            }
+        }
+    }
+
+    // Převzetí čekajících změn parametrů ze schránky a nastavení ramp
+    private void applyParameterUpdates(boolean smooth) {
+        int dirty = mailbox.takeDirty();
+        while (dirty != 0) {
+            int ordinal = Integer.numberOfTrailingZeros(dirty); // Nejnižší změněný parametr
+            dirty &= dirty - 1;
+            SynthParameter p = ParameterMailbox.parameter(ordinal);
+            int ramp = smooth ? (int) (p.getSmoothingSeconds() * sampleRate) : 0; // Délka rampy ve vzorcích
+            smoothers[ordinal].setTarget(mailbox.get(p), ramp);
+        }
+    }
+
+    private boolean isRamping() {
+        for (ParameterSmoother smoother : smoothers) {
+            if (smoother.isRamping()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Snímek parametrů pro úsek n vzorků; hlasitost se v úseku interpoluje po vzorcích
+    private void snapshotParameters(int n) {
+        double volumeStart = smoothers[SynthParameter.VOLUME.ordinal()].current();
+        double volumeEnd = smoothers[SynthParameter.VOLUME.ordinal()].advance(n);
+        params.volume = volumeStart;
+        params.volumeStep = (volumeEnd - volumeStart) / n;
+        params.tune = smoothers[SynthParameter.TUNE.ordinal()].advance(n);
+        params.bend = pitchBend;
+        params.width = smoothers[SynthParameter.WIDTH.ordinal()].advance(n);
+        params.color = smoothers[SynthParameter.COLOR.ordinal()].advance(n);
+        params.depth = smoothers[SynthParameter.DEPTH.ordinal()].advance(n);
+        params.attack = smoothers[SynthParameter.ATTACK.ordinal()].advance(n);
+        params.decay = smoothers[SynthParameter.DECAY.ordinal()].advance(n);
+        params.sustain = smoothers[SynthParameter.SUSTAIN.ordinal()].advance(n);
+        params.release = smoothers[SynthParameter.RELEASE.ordinal()].advance(n);
+        delayMix = smoothers[SynthParameter.DELAY.ordinal()].advance(n);
+        reverbMix = smoothers[SynthParameter.REVERB.ordinal()].advance(n);
+    }
+
+    // Alokující varianta pro jednorázové použití; audio vlákno používá render(), zobrazení getTap()
+    public double[] getWaveform(int sampleCount) { // Metoda pro získání vlnové formy
+        float[] block = new float[sampleCount]; // Dočasný blok vzorků
+        render(block, 0, sampleCount); // Vyrenderování bloku
+        double[] wave = new double[sampleCount]; // Pole pro vzorky vlny
+        for (int i = 0; i < sampleCount; i++) {
+            wave[i] = block[i]; // Převod na double pro zpětnou kompatibilitu
         }
         return wave; // Vrací generovanou vlnovou formu
     }
@@ -0,0 +1,137 @@
+package org.example.syntak;
+
+import java.util.ArrayDeque; // Import pro frontu při topologickém řazení
+import java.util.ArrayList; // Import pro seznamy uzlů a propojení
+import java.util.Arrays; // Import pro nulování vstupů
+import java.util.HashMap; // Import pro indexy uzlů
+import java.util.List; // Import pro seznamy
+import java.util.Map; // Import pro indexy uzlů
+
+// Modulární graf jednotkových generátorů propojených „kabely“ (výstup → vstup).
+// compile() graf topologicky seřadí a převede na plochý rozvrh volání process() s buffery ze zásoby.
+public class SynthGraph {
+
+    private final List<UnitGenerator> units = new ArrayList<>(); // Uzly v pořadí přidání
+    private final List<Cord> cords = new ArrayList<>();          // Propojení
+    private UnitGenerator output;                                // Uzel, jehož výstup je výstupem grafu
+
+    private record Cord(UnitGenerator from, UnitGenerator to, int input) {
+    }
+
+    public <U extends UnitGenerator> U add(U unit) {
+        if (!units.contains(unit)) {
+            units.add(unit);
+        }
+        return unit;
+    }
+
+    // Propojení výstupu uzlu from na vstup input uzlu to
+    public SynthGraph connect(UnitGenerator from, UnitGenerator to, int input) {
+        add(from);
+        add(to);
+        if (input < 0 || input >= to.inputCount()) {
+            throw new IllegalArgumentException("Uzel " + to.getClass().getSimpleName() + " nemá vstup " + input);
+        }
+        for (Cord c : cords) {
+            if (c.to() == to && c.input() == input) {
+                throw new IllegalArgumentException("Vstup " + input + " uzlu " + to.getClass().getSimpleName() + " je už zapojený");
+            }
+        }
+        cords.add(new Cord(from, to, input));
+        return this;
+    }
+
+    public SynthGraph setOutput(UnitGenerator unit) {
+        output = add(unit);
+        return this;
+    }
+
+    // Kompilace na plochý rozvrh; uzly, které do výstupu nevedou, se vynechají
+    public CompiledGraph compile(int blockSize) {
+        if (output == null) {
+            throw new IllegalStateException("Graf nemá nastavený výstup");
+        }
+        Map<UnitGenerator, Integer> index = new HashMap<>();
+        for (int i = 0; i < units.size(); i++) {
+            index.put(units.get(i), i);
+        }
+
+        // Uzly potřebné pro výstup (zpětný průchod od výstupu)
+        boolean[] needed = new boolean[units.size()];
+        ArrayDeque<UnitGenerator> stack = new ArrayDeque<>();
+        stack.push(output);
+        while (!stack.isEmpty()) {
+            UnitGenerator u = stack.pop();
+            if (!needed[index.get(u)]) {
+                needed[index.get(u)] = true;
+                for (Cord c : cords) {
+                    if (c.to() == u) {
+                        stack.push(c.from());
+                    }
+                }
+            }
+        }
+
+        // Kahnův algoritmus nad potřebnými uzly
+        int[] inDegree = new int[units.size()];
+        for (Cord c : cords) {
+            if (needed[index.get(c.to())]) {
+                inDegree[index.get(c.to())]++;
+            }
+        }
+        ArrayDeque<UnitGenerator> ready = new ArrayDeque<>();
+        for (UnitGenerator u : units) {
+            if (needed[index.get(u)] && inDegree[index.get(u)] == 0) {
+                ready.add(u);
+            }
+        }
+        List<UnitGenerator> schedule = new ArrayList<>();
+        while (!ready.isEmpty()) {
+            UnitGenerator u = ready.poll();
+            schedule.add(u);
+            for (Cord c : cords) {
+                if (c.from() == u && needed[index.get(c.to())] && --inDegree[index.get(c.to())] == 0) {
+                    ready.add(c.to());
+                }
+            }
+        }
+        int neededCount = 0;
+        for (boolean n : needed) {
+            neededCount += n ? 1 : 0;
+        }
+        if (schedule.size() != neededCount) {
+            throw new IllegalStateException("Graf obsahuje zpětnou smyčku, nelze ho seřadit");
+        }
+
+        // Poslední uzel v rozvrhu, který čte výstup daného uzlu
+        int[] lastUse = new int[units.size()];
+        for (int s = 0; s < schedule.size(); s++) {
+            for (Cord c : cords) {
+                if (c.to() == schedule.get(s)) {
+                    lastUse[index.get(c.from())] = s;
+                }
+            }
+        }
+
+        // Přidělení bufferů: výstup se přidělí dřív, než se uvolní vstupy, takže žádný uzel nepracuje na místě
+        BufferPool pool = new BufferPool(blockSize);
+        for (int s = 0; s < schedule.size(); s++) {
+            UnitGenerator u = schedule.get(s);
+            u.output = pool.acquire();
+            Arrays.fill(u.inputs, null);
+            for (Cord c : cords) {
+                if (c.to() == u) {
+                    u.inputs[c.input()] = c.from().output;
+                }
+            }
+            for (Cord c : cords) {
+                UnitGenerator from = c.from();
+                if (c.to() == u && from != output && lastUse[index.get(from)] == s && from.output != null) {
+                    pool.release(from.output); // Výstup už nikdo další nečte
+                    lastUse[index.get(from)] = -1; // Uzel zapojený do více vstupů téhož uzlu se uvolní jen jednou
+                }
+            }
+        }
+        return new CompiledGraph(schedule.toArray(new UnitGenerator[0]), output, blockSize, pool.allocated());
+    }
+}
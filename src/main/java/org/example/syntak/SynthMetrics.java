@@ -0,0 +1,91 @@
+package org.example.syntak;
+
+// Metriky výkonu audio vlákna: histogram doby renderu, zatížení DSP vůči rozpočtu bloku,
+// podtečení výstupu, počet hlasů a hloubka fronty parametrů. Záznam bloku nic nealokuje.
+public class SynthMetrics implements SynthMetricsMBean {
+
+    private static final double LOAD_SMOOTHING = 0.05; // Váha nového bloku v klouzavém průměru zatížení
+
+    private final SynthEngine engine; // Zdroj počtu hlasů, fronty parametrů a výstupu
+    private final RenderTimeHistogram histogram = new RenderTimeHistogram();
+    private volatile double load;     // Vyhlazené zatížení 0 až 1 (i více při nestíhání)
+    private volatile double peakLoad; // Nejvyšší zatížení jednoho bloku
+
+    SynthMetrics(SynthEngine engine) {
+        this.engine = engine;
+    }
+
+    // Záznam jednoho bloku (audio vlákno): doba renderu a délka bloku ve vzorcích
+    void recordBlock(long renderNanos, int samples, double sampleRate) {
+        histogram.record(renderNanos);
+        double budgetNanos = samples / sampleRate * 1e9; // Čas, za který se blok přehraje
+        double blockLoad = renderNanos / budgetNanos;
+        load += (blockLoad - load) * LOAD_SMOOTHING;
+        if (blockLoad > peakLoad) {
+            peakLoad = blockLoad;
+        }
+    }
+
+    @Override
+    public long getBlocksRendered() {
+        return histogram.count();
+    }
+
+    @Override
+    public double getRenderTimeMeanMicros() {
+        return histogram.mean() / 1e3;
+    }
+
+    @Override
+    public double getRenderTimeP50Micros() {
+        return histogram.percentile(0.5) / 1e3;
+    }
+
+    @Override
+    public double getRenderTimeP99Micros() {
+        return histogram.percentile(0.99) / 1e3;
+    }
+
+    @Override
+    public double getRenderTimeMaxMicros() {
+        return histogram.max() / 1e3;
+    }
+
+    @Override
+    public double getDspLoadPercent() {
+        return load * 100;
+    }
+
+    @Override
+    public double getPeakDspLoadPercent() {
+        return peakLoad * 100;
+    }
+
+    @Override
+    public long getUnderruns() {
+        AudioOutput output = engine.getOutput();
+        return output == null ? 0 : output.getUnderruns();
+    }
+
+    @Override
+    public int getActiveVoices() {
+        return engine.getRenderedVoiceCount();
+    }
+
+    @Override
+    public int getParameterQueueDepth() {
+        return engine.getPendingParameterUpdates();
+    }
+
+    @Override
+    public double getOutputLatencyMillis() {
+        AudioOutput output = engine.getOutput();
+        return output == null ? 0 : output.getLatencySeconds() * 1e3;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+        peakLoad = 0;
+    }
+}
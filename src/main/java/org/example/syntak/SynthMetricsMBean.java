@@ -0,0 +1,29 @@
+package org.example.syntak;
+
+// Rozhraní JMX (standardní MBean) s metrikami audio vlákna – viditelné v JConsole / JMC
+public interface SynthMetricsMBean {
+
+    long getBlocksRendered();        // Počet vyrenderovaných bloků
+
+    double getRenderTimeMeanMicros(); // Průměrná doba renderu bloku v µs
+
+    double getRenderTimeP50Micros();  // Medián doby renderu bloku v µs
+
+    double getRenderTimeP99Micros();  // 99. percentil doby renderu bloku v µs
+
+    double getRenderTimeMaxMicros();  // Nejdelší render bloku v µs
+
+    double getDspLoadPercent();      // Zatížení DSP v % rozpočtu bloku v reálném čase (vyhlazené)
+
+    double getPeakDspLoadPercent();  // Nejvyšší zatížení jednoho bloku v %
+
+    long getUnderruns();             // Počet podtečení výstupu (xrun)
+
+    int getActiveVoices();           // Počet znějících hlasů
+
+    int getParameterQueueDepth();    // Počet změn parametrů čekajících na audio vlákno
+
+    double getOutputLatencyMillis(); // Latence výstupního bufferu v ms
+
+    void reset();                    // Vynulování histogramu a špičky zatížení
+}
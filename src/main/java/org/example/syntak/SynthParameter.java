@@ -0,0 +1,68 @@
+package org.example.syntak;
+
+// Typové označení parametrů syntézy – rozsah, výchozí hodnota a doba vyhlazení změn
+public enum SynthParameter {
+    VOLUME("Volume", 0, 1, 1.0, 0.02),      // Hlasitost
+    TUNE("Tune", -1000, 1000, 440.0, 0.02), // Frekvence tónu A4 v Hz
+    WIDTH("Width", 0, 1, 1.0, 0.02),        // Duty cycle čtvercové vlny
+    COLOR("Color", 0, 1, 1.0, 0.02),        // Mix sinus/kosinus
+    DEPTH("Depth", 0, 1, 1.0, 0.02),        // Druhá harmonická pilovité vlny
+    ATTACK("Attack", 0, 2, 0.1, 0),         // Nástup v sekundách (bez vyhlazení)
+    DECAY("Decay", 0, 2, 0.1, 0),           // Pokles v sekundách (bez vyhlazení)
+    SUSTAIN("Sustain", 0, 1, 1.0, 0.02),    // Udržovací úroveň
+    RELEASE("Release", 0, 2, 0.1, 0),       // Uvolnění v sekundách (bez vyhlazení)
+    DELAY("Delay", 0, 1, 0.0, 0.02),        // Podíl delaye na sběrnici efektů
+    REVERB("Reverb", 0, 1, 0.0, 0.02);      // Podíl dozvuku na sběrnici efektů
+
+    private final String label;           // Popisek knobu
+    private final double min;             // Minimální hodnota
+    private final double max;             // Maximální hodnota
+    private final double defaultValue;    // Výchozí hodnota
+    private final double smoothingSeconds; // Délka rampy při změně hodnoty
+
+    SynthParameter(String label, double min, double max, double defaultValue, double smoothingSeconds) {
+        this.label = label;
+        this.min = min;
+        this.max = max;
+        this.defaultValue = defaultValue;
+        this.smoothingSeconds = smoothingSeconds;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public double getRange() {
+        return max - min;
+    }
+
+    public double getDefaultValue() {
+        return defaultValue;
+    }
+
+    public double getSmoothingSeconds() {
+        return smoothingSeconds;
+    }
+
+    public double clamp(double value) { // Omezení hodnoty na povolený rozsah
+        return Math.max(min, Math.min(value, max));
+    }
+
+    // Převod textového názvu (např. "tune") na parametr; null pokud neexistuje
+    public static SynthParameter fromName(String name) {
+        for (SynthParameter p : values()) {
+            if (p.name().equalsIgnoreCase(name)) {
+                return p;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.syntak;
+
+// Jednotkový generátor (uzel grafu DSP). Zpracovává vždy celý blok, takže virtuální volání
+// připadá na uzel a blok, ne na vzorek. Buffery vstupů a výstupu přiděluje SynthGraph.compile().
+public abstract class UnitGenerator {
+
+    final float[][] inputs; // Buffery vstupů (null = nezapojený vstup)
+    float[] output;         // Buffer výstupu
+
+    protected UnitGenerator(int inputCount) {
+        inputs = new float[inputCount][];
+    }
+
+    public int inputCount() {
+        return inputs.length;
+    }
+
+    // Zpracování length vzorků ze vstupů do výstupu (length nepřesáhne velikost bloku grafu)
+    protected abstract void process(int length);
+
+    protected void noteOn(double velocity) { // Stisk noty (např. pro obálky)
+    }
+
+    protected void noteOff() { // Uvolnění noty
+    }
+
+    protected void reset() { // Návrat do výchozího stavu
+    }
+
+    protected boolean isSounding() { // true, dokud uzel drží hlas naživu (obálka hlasitosti)
+        return false;
+    }
+}
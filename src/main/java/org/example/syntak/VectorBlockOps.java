@@ -0,0 +1,76 @@
+package org.example.syntak;
+
+import jdk.incubator.vector.FloatVector; // Import vektorů typu float
+import jdk.incubator.vector.ShortVector; // Import vektorů typu short
+import jdk.incubator.vector.VectorOperators; // Import převodů mezi typy
+import jdk.incubator.vector.VectorShape; // Import velikosti vektoru
+import jdk.incubator.vector.VectorSpecies; // Import druhu vektoru
+
+// Blokové operace přes Vector API (SIMD); zbytek bloku, který nevyplní celý vektor, se dopočítá skalárně.
+// Načítá se jen reflexí z BlockOps, pokud je modul jdk.incubator.vector dostupný.
+final class VectorBlockOps implements BlockOps {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED; // Nejširší vektor procesoru
+    // Stejný počet prvků typu short = poloviční šířka vektoru
+    private static final VectorSpecies<Short> SHORTS = VectorSpecies.of(short.class,
+            VectorShape.forBitSize(FLOATS.vectorBitSize() / 2));
+    private static final float[] LANE_INDEX = new float[FLOATS.length()]; // 0, 1, 2, … pro rampy
+
+    static {
+        for (int i = 0; i < LANE_INDEX.length; i++) {
+            LANE_INDEX[i] = i;
+        }
+    }
+
+    VectorBlockOps() {
+    }
+
+    @Override
+    public void mixRamped(float[] dst, int dstOffset, float[] src, int srcOffset, int length,
+                          float gain, float gainStep, float level, float levelStep) {
+        int lanes = FLOATS.length();
+        int bound = FLOATS.loopBound(length);
+        FloatVector lane = FloatVector.fromArray(FLOATS, LANE_INDEX, 0);
+        FloatVector gains = lane.mul(gainStep).add(gain);    // Hlasitost pro každý prvek vektoru
+        FloatVector levels = lane.mul(levelStep).add(level); // Obálka pro každý prvek vektoru
+        float gainJump = gainStep * lanes;
+        float levelJump = levelStep * lanes;
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            FloatVector s = FloatVector.fromArray(FLOATS, src, srcOffset + i);
+            FloatVector d = FloatVector.fromArray(FLOATS, dst, dstOffset + i);
+            s.mul(gains).fma(levels, d).intoArray(dst, dstOffset + i); // d + s·g·l
+            gains = gains.add(gainJump);
+            levels = levels.add(levelJump);
+        }
+        ScalarBlockOps.INSTANCE.mixRamped(dst, dstOffset + i, src, srcOffset + i, length - i,
+                gain + gainStep * i, gainStep, level + levelStep * i, levelStep);
+    }
+
+    @Override
+    public void add(float[] dst, int dstOffset, float[] src, int srcOffset, int length) {
+        int lanes = FLOATS.length();
+        int bound = FLOATS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            FloatVector.fromArray(FLOATS, dst, dstOffset + i)
+                    .add(FloatVector.fromArray(FLOATS, src, srcOffset + i))
+                    .intoArray(dst, dstOffset + i);
+        }
+        ScalarBlockOps.INSTANCE.add(dst, dstOffset + i, src, srcOffset + i, length - i);
+    }
+
+    @Override
+    public void toPcm16(float[] src, int srcOffset, int length, short[] dst, int dstOffset) {
+        int lanes = FLOATS.length();
+        int bound = FLOATS.loopBound(length);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            FloatVector scaled = FloatVector.fromArray(FLOATS, src, srcOffset + i)
+                    .max(-1f).min(1f).mul(32767f); // Ořezání a škálování
+            ((ShortVector) scaled.convertShape(VectorOperators.F2S, SHORTS, 0)) // Převod na 16 bitů
+                    .intoArray(dst, dstOffset + i);
+        }
+        ScalarBlockOps.INSTANCE.toPcm16(src, srcOffset + i, length - i, dst, dstOffset + i);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.syntak;
+
+// Jeden hlas polyfonního enginu – vlastní fáze, výška a stav obálky
+final class Voice {
+
+    private int note = -1;           // MIDI číslo noty, -1 = volný hlas
+    private double pitchRatio = 1.0; // Poměr frekvence vůči tónu A4 (parametr tune)
+    private double velocity = 1.0;   // Síla úhozu 0.0 až 1.0
+    private int phase;               // Fáze oscilátoru (32bitová fixní řádová čárka, 2^32 = perioda)
+    private long startOrder;         // Pořadí spuštění pro krádež nejstaršího hlasu
+    private final Envelope envelope = new Envelope(); // Obálka ADSR hlasu
+    private final BlockOps ops = BlockOps.get(); // Blokové operace (Vector API nebo skalární)
+    private VoiceGraph graph;        // Patch z jednotkových generátorů, null = pevně zapojený hlas
+
+    // Graf nad obálkou tohoto hlasu; vytvoří se mimo audio vlákno a nasadí až přes setGraph
+    VoiceGraph buildGraph(VoiceGraphBuilder builder, double sampleRate) {
+        return new VoiceGraph(envelope, sampleRate, builder);
+    }
+
+    // Přepnutí mezi pevně zapojeným hlasem (null) a grafem jednotkových generátorů
+    void setGraph(VoiceGraph graph) {
+        this.graph = graph;
+    }
+
+    // Spuštění noty (i při krádeži hlasu – fáze se nenuluje, aby nevzniklo lupnutí)
+    void noteOn(int note, double velocity, long startOrder) {
+        this.note = note;
+        this.pitchRatio = Math.pow(2, (note - 69) / 12.0); // Rovnoměrně temperované ladění
+        this.velocity = velocity;
+        this.startOrder = startOrder;
+        envelope.gateOn();
+    }
+
+    // Uvolnění noty – obálka přejde do fáze release
+    void noteOff() {
+        envelope.gateOff();
+    }
+
+    // Okamžité umlčení hlasu
+    void kill() {
+        envelope.reset();
+        if (graph != null) {
+            graph.reset(); // Vynulování stavu filtru a LFO
+        }
+        note = -1;
+    }
+
+    boolean isActive() {
+        return envelope.isActive();
+    }
+
+    boolean isReleased() {
+        return envelope.isReleased();
+    }
+
+    int getNote() {
+        return note;
+    }
+
+    long getStartOrder() {
+        return startOrder;
+    }
+
+    double getLevel() {
+        return envelope.level();
+    }
+
+    // Přičte length vzorků hlasu do mix[offset ..]; scratch slouží pro surový průběh oscilátoru
+    void render(float[] mix, int offset, int length, VoiceParameters p, float[] scratch) {
+        if (graph != null) {
+            graph.prepare(p, p.tune * p.bend * pitchRatio, velocity); // Parametry uzlů jednou za úsek
+            graph.process(scratch, 0, length); // Plochý rozvrh uzlů
+            ops.add(mix, offset, scratch, 0, length);
+            if (!envelope.isActive()) {
+                note = -1; // Hlas dozněl
+            }
+            return;
+        }
+        int increment = Wavetable.increment(p.tune * p.bend * pitchRatio, p.sampleRate); // Inkrement fáze
+        phase = p.oscillator.render(scratch, 0, length, phase, increment, p.width, p.color, p.depth); // Surový průběh
+        envelope.configure(p); // Přepočet přírůstků obálky jen při změně parametrů
+
+        double gain = p.volume * velocity; // Hlasitost hlasu
+        double gainStep = p.volumeStep * velocity; // Rampa hlasitosti v rámci úseku
+        for (int start = 0; start < length; start += Envelope.CONTROL_PERIOD) {
+            // Řídicí frekvence: obálka se spočítá jednou za úsek, uvnitř se lineárně interpoluje
+            int n = Math.min(Envelope.CONTROL_PERIOD, length - start);
+            double level = envelope.level();
+            double levelStep = (envelope.advance(n) - level) / n;
+            ops.mixRamped(mix, offset + start, scratch, start, n, // Aplikace obálky a přičtení do mixu (SIMD)
+                    (float) gain, (float) gainStep, (float) level, (float) levelStep);
+            gain += gainStep * n;
+            if (!envelope.isActive()) {
+                note = -1;
+                return; // Hlas dozněl uprostřed bloku
+            }
+        }
+    }
+}
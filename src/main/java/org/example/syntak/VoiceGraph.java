@@ -0,0 +1,51 @@
+package org.example.syntak;
+
+// Hlas jako graf jednotkových generátorů. Zapojení dodá VoiceGraphBuilder; knoby se mapují
+// na parametry standardních uzlů (VoiceUnits) bez ohledu na to, jak jsou propojené.
+final class VoiceGraph {
+
+    static final int BLOCK_SIZE = 256; // Nejdelší blok zpracovaný uzly najednou
+
+    private final LfoUnit lfo;
+    private final OscillatorUnit oscillator;
+    private final FilterUnit filter;
+    private final EnvelopeUnit envelope;
+    private final AmplifierUnit amplifier;
+    private final CompiledGraph graph;
+
+    // Obálka se sdílí s hlasem, aby krádež hlasů a počítání aktivních hlasů fungovaly beze změny
+    VoiceGraph(Envelope voiceEnvelope, double sampleRate, VoiceGraphBuilder builder) {
+        VoiceUnits units = new VoiceUnits(voiceEnvelope, sampleRate);
+        lfo = units.lfo();
+        oscillator = units.oscillator();
+        filter = units.filter();
+        envelope = units.envelope();
+        amplifier = units.amplifier();
+        graph = builder.build(units).compile(BLOCK_SIZE);
+        if (!graph.contains(envelope)) { // Bez obálky by hlas nikdy neskončil a nešel by ukrást
+            throw new IllegalArgumentException("Graf hlasu musí obsahovat obálku hlasu (VoiceUnits.envelope())");
+        }
+    }
+
+    // Převzetí snímku parametrů – volá se jednou za úsek, ne pro každý vzorek
+    void prepare(VoiceParameters p, double frequency, double velocity) {
+        oscillator.setOscillator(p.oscillator);
+        oscillator.setFrequency(frequency);
+        oscillator.setShape(p.width, p.color, p.depth);
+        lfo.setRate(p.lfoRate);
+        lfo.setDepth(p.lfoDepth);
+        filter.setCutoff(p.filterCutoff);
+        filter.setResonance(p.filterResonance);
+        envelope.setTimes(p.attack, p.decay, p.sustain, p.release);
+        envelope.setFixed(p.testEnvelope);
+        amplifier.setGain(p.volume * velocity, p.volumeStep * velocity);
+    }
+
+    void process(float[] out, int offset, int length) {
+        graph.process(out, offset, length);
+    }
+
+    void reset() {
+        graph.reset();
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.syntak;
+
+// Zapojení grafu jednoho hlasu. Volá se pro každý hlas zvlášť (a znovu při změně vzorkovací frekvence),
+// nikdy z audio vlákna. Vrácený graf musí mít nastavený výstup a musí obsahovat obálku hlasu.
+@FunctionalInterface
+public interface VoiceGraphBuilder {
+
+    SynthGraph build(VoiceUnits units);
+
+    // LFO → (výška) oscilátor → filtr → zesilovač ← obálka; s otevřeným filtrem a vypnutým LFO
+    // zní stejně jako pevně zapojený hlas
+    VoiceGraphBuilder STANDARD = u -> new SynthGraph()
+            .connect(u.lfo(), u.oscillator(), OscillatorUnit.PITCH)
+            .connect(u.oscillator(), u.filter(), FilterUnit.AUDIO)
+            .connect(u.filter(), u.amplifier(), AmplifierUnit.AUDIO)
+            .connect(u.envelope(), u.amplifier(), AmplifierUnit.CONTROL)
+            .setOutput(u.amplifier());
+
+    // Paralelní filtr: směšovač sčítá půl suchého oscilátoru a půl filtrovaného signálu
+    VoiceGraphBuilder PARALLEL = u -> {
+        MixerUnit mixer = new MixerUnit(2);
+        mixer.setGain(0, 0.5);
+        mixer.setGain(1, 0.5);
+        return new SynthGraph()
+                .connect(u.lfo(), u.oscillator(), OscillatorUnit.PITCH)
+                .connect(u.oscillator(), u.filter(), FilterUnit.AUDIO)
+                .connect(u.oscillator(), mixer, 0)
+                .connect(u.filter(), mixer, 1)
+                .connect(mixer, u.amplifier(), AmplifierUnit.AUDIO)
+                .connect(u.envelope(), u.amplifier(), AmplifierUnit.CONTROL)
+                .setOutput(u.amplifier());
+    };
+
+    // Vestavěné zapojení podle jména z patche nebo příkazové řádky; „off“ = pevně zapojený hlas (null)
+    static VoiceGraphBuilder forName(String name) {
+        return switch (name.trim().toLowerCase()) {
+            case "off" -> null;
+            case "standard" -> STANDARD;
+            case "parallel" -> PARALLEL;
+            default -> throw new IllegalArgumentException("Neznámé zapojení hlasu: " + name);
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.example.syntak;
+
+// Snímek parametrů syntézy sdílený všemi hlasy během jednoho bloku
+final class VoiceParameters {
+    Oscillator oscillator = Oscillator.SINE; // Strategie oscilátoru
+    double volume = 1.0;   // Hlasitost 0.0 až 1.0 na začátku úseku
+    double volumeStep;     // Změna hlasitosti za vzorek (vyhlazení knobu)
+    double tune = 440.0;   // Frekvence tónu A4 (nota 69) v Hz
+    double bend = 1.0;     // Poměr ohnutí výšky (MIDI pitch bend)
+    double width = 1.0;    // Duty cycle čtvercové vlny
+    double color = 1.0;    // Mix sinus/kosinus
+    double depth = 1.0;    // Druhá harmonická u pilovité vlny
+    double attack = 0.1;   // Nástup v sekundách
+    double decay = 0.1;    // Pokles v sekundách
+    double sustain = 1.0;  // Udržovací úroveň
+    double release = 0.1;  // Uvolnění v sekundách
+    double filterCutoff = Double.POSITIVE_INFINITY; // Mezní kmitočet filtru v režimu grafu (nekonečno = otevřený)
+    double filterResonance; // Rezonance filtru v režimu grafu
+    double lfoRate = 5.0;   // Frekvence LFO v režimu grafu
+    double lfoDepth;        // Modulace výšky LFO v oktávách (0 = vypnuto)
+    boolean testEnvelope;  // true = obálka je pevně 1.0 po dobu stisku
+    double sampleRate = 44100.0; // Vzorkovací frekvence
+}
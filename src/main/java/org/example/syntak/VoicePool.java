@@ -0,0 +1,251 @@
+package org.example.syntak;
+
+import java.util.Arrays; // Import pro nulování bloků
+import java.util.concurrent.ForkJoinPool; // Import pro paralelní render skupin hlasů
+import java.util.concurrent.RecursiveAction; // Import pro úlohy fork-join
+
+// Předalokovaná sada hlasů s krádeží hlasů a paralelním renderem při velkém počtu aktivních hlasů
+public class VoicePool {
+
+    // Od kolika aktivních hlasů se render rozdělí mezi jádra
+    static final int PARALLEL_THRESHOLD = 32;
+    // Minimální počet hlasů v jedné skupině, aby režie úlohy nepřevážila práci
+    private static final int MIN_GROUP_SIZE = 8;
+
+    private final Voice[] voices;       // Všechny hlasy (alokované jednou)
+    private final Voice[] active;       // Aktivní hlasy v aktuálním bloku
+    private int activeCount;            // Počet aktivních hlasů v aktuálním bloku
+    private volatile int renderedCount; // Počet hlasů v posledním bloku – čte se bez zámku (metriky)
+    private long noteCounter;           // Pořadí spuštěných not
+    private VoiceStealing stealing = VoiceStealing.OLDEST; // Pravidlo krádeže hlasů
+    private VoiceGraphBuilder graphBuilder; // Zapojení grafu hlasů, null = pevně zapojené hlasy
+
+    private final ForkJoinPool pool;    // Pracovní vlákna pro paralelní render
+    private final GroupTask[] groups;   // Předalokované úlohy, jedna na skupinu
+    private final RenderAll renderAll = new RenderAll(); // Kořenová úloha bloku
+    private float[] scratch = new float[0]; // Pracovní buffer pro sekvenční render
+    private final BlockOps ops = BlockOps.get(); // Blokové operace (Vector API nebo skalární)
+
+    // Stav aktuálně renderovaného bloku – čtou ho úlohy skupin
+    private int blockLength;
+    private int groupCount;
+    private int groupSize;
+    private VoiceParameters blockParams;
+
+    public VoicePool(int maxVoices) {
+        this(maxVoices, ForkJoinPool.commonPool());
+    }
+
+    public VoicePool(int maxVoices, ForkJoinPool pool) {
+        voices = new Voice[maxVoices];
+        for (int i = 0; i < maxVoices; i++) {
+            voices[i] = new Voice(); // Hlasy se vytvoří jen jednou
+        }
+        active = new Voice[maxVoices];
+        this.pool = pool;
+        groups = new GroupTask[Math.max(1, pool.getParallelism())];
+        for (int i = 0; i < groups.length; i++) {
+            groups[i] = new GroupTask(i);
+        }
+    }
+
+    public int getMaxVoices() {
+        return voices.length;
+    }
+
+    // Hlasy jako graf jednotkových generátorů podle builderu (null = pevně zapojené hlasy).
+    // Grafy se předalokují zde, ne při renderu; chybné zapojení se ohlásí dřív, než se změní jediný hlas.
+    public synchronized void setVoiceGraph(VoiceGraphBuilder builder, double sampleRate) {
+        VoiceGraph[] graphs = new VoiceGraph[voices.length];
+        if (builder != null) {
+            for (int i = 0; i < voices.length; i++) {
+                graphs[i] = voices[i].buildGraph(builder, sampleRate);
+            }
+        }
+        graphBuilder = builder;
+        for (int i = 0; i < voices.length; i++) {
+            voices[i].kill();
+            voices[i].setGraph(graphs[i]);
+        }
+    }
+
+    public synchronized VoiceGraphBuilder getVoiceGraph() {
+        return graphBuilder;
+    }
+
+    // Změna vzorkovací frekvence – grafy mají frekvenci v uzlech, proto se vytvoří znovu
+    public synchronized void setSampleRate(double sampleRate) {
+        if (graphBuilder != null) {
+            setVoiceGraph(graphBuilder, sampleRate);
+        }
+    }
+
+    public synchronized void setStealing(VoiceStealing stealing) {
+        this.stealing = stealing;
+    }
+
+    // Spuštění noty; pokud není volný hlas, ukradne se podle nastaveného pravidla
+    public synchronized void noteOn(int note, double velocity) {
+        checkNote(note);
+        Voice target = null;
+        for (Voice v : voices) {
+            if (v.isActive() && v.getNote() == note) {
+                target = v; // Opakovaný úder stejné noty použije stejný hlas
+                break;
+            }
+            if (target == null && !v.isActive()) {
+                target = v; // První volný hlas
+            }
+        }
+        if (target == null) {
+            target = steal();
+        }
+        target.noteOn(note, velocity, noteCounter++);
+    }
+
+    public synchronized void noteOff(int note) {
+        checkNote(note);
+        for (Voice v : voices) {
+            if (v.isActive() && v.getNote() == note) {
+                v.noteOff();
+            }
+        }
+    }
+
+    public synchronized void allNotesOff() {
+        for (Voice v : voices) {
+            v.noteOff();
+        }
+    }
+
+    // Okamžité umlčení všech hlasů (např. při zastavení enginu)
+    public synchronized void reset() {
+        for (Voice v : voices) {
+            v.kill();
+        }
+    }
+
+    public synchronized int getActiveVoiceCount() {
+        int count = 0;
+        for (Voice v : voices) {
+            if (v.isActive()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Počet hlasů v posledním vyrenderovaném bloku; na rozdíl od getActiveVoiceCount() nečeká na zámek
+    public int getRenderedVoiceCount() {
+        return renderedCount;
+    }
+
+    // Jen platná čísla MIDI not – vyšší by dala frekvence v řádu MHz a přetečení inkrementu fáze
+    private static void checkNote(int note) {
+        if (note < 0 || note > 127) {
+            throw new IllegalArgumentException("Nota musí být v rozsahu 0 až 127: " + note);
+        }
+    }
+
+    // Výběr oběti – uvolňované hlasy mají přednost před drženými
+    private Voice steal() {
+        Voice victim = voices[0];
+        for (Voice v : voices) {
+            if (v.isReleased() != victim.isReleased()) {
+                if (v.isReleased()) {
+                    victim = v;
+                }
+                continue;
+            }
+            boolean better = switch (stealing) {
+                case OLDEST -> v.getStartOrder() < victim.getStartOrder();
+                case QUIETEST -> v.getLevel() < victim.getLevel();
+            };
+            if (better) {
+                victim = v;
+            }
+        }
+        return victim;
+    }
+
+    // Vyrenderuje mix všech aktivních hlasů do out[offset .. offset + length)
+    synchronized void render(float[] out, int offset, int length, VoiceParameters params) {
+        Arrays.fill(out, offset, offset + length, 0f); // Mix začíná tichem
+        activeCount = 0;
+        for (Voice v : voices) {
+            if (v.isActive()) {
+                active[activeCount++] = v; // Sběr aktivních hlasů bez alokace
+            }
+        }
+        renderedCount = activeCount;
+        if (activeCount == 0) {
+            return;
+        }
+
+        if (activeCount < PARALLEL_THRESHOLD || groups.length == 1) {
+            if (scratch.length < length) {
+                scratch = new float[length];
+            }
+            for (int i = 0; i < activeCount; i++) {
+                active[i].render(out, offset, length, params, scratch); // Sekvenční render
+            }
+            return;
+        }
+
+        // Rozdělení hlasů do skupin, každá skupina renderuje do vlastního bufferu
+        blockLength = length;
+        blockParams = params;
+        groupSize = Math.max(MIN_GROUP_SIZE, (activeCount + groups.length - 1) / groups.length);
+        groupCount = (activeCount + groupSize - 1) / groupSize;
+        renderAll.reinitialize(); // Znovupoužití úlohy místo nové alokace
+        pool.invoke(renderAll);
+
+        // Finální mix skupin
+        for (int g = 0; g < groupCount; g++) {
+            ops.add(out, offset, groups[g].mix, 0, length);
+        }
+        blockParams = null;
+    }
+
+    // Kořenová úloha – spustí úlohy všech použitých skupin a počká na ně
+    private final class RenderAll extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (int g = 0; g < groupCount; g++) {
+                groups[g].reinitialize();
+            }
+            for (int g = 1; g < groupCount; g++) {
+                groups[g].fork(); // Ostatní skupiny na pracovní vlákna
+            }
+            groups[0].invoke(); // První skupina v aktuálním vlákně
+            for (int g = 1; g < groupCount; g++) {
+                groups[g].join();
+            }
+        }
+    }
+
+    // Render jedné skupiny hlasů do vlastního mixu
+    private final class GroupTask extends RecursiveAction {
+        private final int index;          // Pořadí skupiny
+        private float[] mix = new float[0];     // Mix skupiny
+        private float[] scratch = new float[0]; // Pracovní buffer skupiny
+
+        GroupTask(int index) {
+            this.index = index;
+        }
+
+        @Override
+        protected void compute() {
+            if (mix.length < blockLength) {
+                mix = new float[blockLength]; // Zvětšení jen při změně velikosti bloku
+                scratch = new float[blockLength];
+            }
+            Arrays.fill(mix, 0, blockLength, 0f);
+            int from = index * groupSize;
+            int to = Math.min(activeCount, from + groupSize);
+            for (int i = from; i < to; i++) {
+                active[i].render(mix, 0, blockLength, blockParams, scratch);
+            }
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.syntak;
+
+// Pravidlo pro výběr hlasu, který se ukradne, když jsou všechny hlasy obsazené
+public enum VoiceStealing {
+    OLDEST,   // Ukradne se nejdéle znějící hlas
+    QUIETEST  // Ukradne se hlas s nejnižší aktuální úrovní obálky
+}
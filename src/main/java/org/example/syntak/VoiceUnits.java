@@ -0,0 +1,47 @@
+package org.example.syntak;
+
+// Standardní uzly jednoho hlasu, jejichž parametry engine každý úsek nastavuje z knobů a patche.
+// VoiceGraphBuilder je propojí (případně s vlastními uzly) do grafu hlasu.
+public final class VoiceUnits {
+
+    private final LfoUnit lfo;
+    private final OscillatorUnit oscillator;
+    private final FilterUnit filter;
+    private final EnvelopeUnit envelope;
+    private final AmplifierUnit amplifier;
+    private final double sampleRate;
+
+    // Obálka se sdílí s hlasem, aby krádež hlasů a počítání aktivních hlasů fungovaly beze změny
+    VoiceUnits(Envelope voiceEnvelope, double sampleRate) {
+        this.sampleRate = sampleRate;
+        lfo = new LfoUnit(sampleRate);
+        oscillator = new OscillatorUnit(sampleRate);
+        filter = new FilterUnit(sampleRate);
+        envelope = new EnvelopeUnit(voiceEnvelope, sampleRate);
+        amplifier = new AmplifierUnit();
+    }
+
+    public LfoUnit lfo() { // Rychlost a hloubka z SynthEngine.setLfo
+        return lfo;
+    }
+
+    public OscillatorUnit oscillator() { // Typ vlny, výška noty a tvar (width, color, depth)
+        return oscillator;
+    }
+
+    public FilterUnit filter() { // Kmitočet a rezonance z SynthEngine.setFilter
+        return filter;
+    }
+
+    public EnvelopeUnit envelope() { // Obálka hlasu – graf ji musí obsahovat, jinak hlas nikdy nedozní
+        return envelope;
+    }
+
+    public AmplifierUnit amplifier() { // Hlasitost × síla úhozu
+        return amplifier;
+    }
+
+    public double sampleRate() { // Pro vlastní uzly přidané do grafu
+        return sampleRate;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.syntak;
+
+import javax.sound.sampled.AudioFormat; // Import pro formát vzorků v souboru
+import java.io.IOException; // Import pro chyby zápisu
+import java.nio.ByteBuffer; // Import pro velký výstupní buffer
+import java.nio.ByteOrder; // Import pro pořadí bajtů (WAV je little-endian)
+import java.nio.channels.FileChannel; // Import pro zápis přes NIO
+import java.nio.charset.StandardCharsets; // Import pro kódování značek RIFF
+import java.nio.file.Path; // Import pro cestu k souboru
+import java.nio.file.StandardOpenOption; // Import pro režimy otevření souboru
+
+// Zápis PCM (16/24/32 bitů) nebo 32bitového float do souboru WAV přes FileChannel s velkým přímým bufferem.
+// Hlavička se zapíše hned s nulovými délkami a při zavření se doplní.
+public class WavWriter implements AudioSink {
+
+    private static final int HEADER_SIZE = 44; // Velikost hlavičky RIFF/WAVE s blokem fmt
+    private static final int BUFFER_SIZE = 1 << 20; // 1 MB – málo systémových volání i u dlouhých renderů
+
+    private final FileChannel channel; // Výstupní soubor
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    private final PcmConverter pcm = new PcmConverter(); // Převod vzorků do formátu souboru
+    private final AudioFormat format; // Formát vzorků (vždy little-endian)
+    private final int sampleRate; // Vzorkovací frekvence
+    private final int channels;   // Počet kanálů
+    private final int frameSize;  // Bajtů na snímek
+    private long dataBytes;       // Počet zapsaných bajtů vzorků
+
+    public WavWriter(Path path, int sampleRate, int channels) throws IOException {
+        this(path, PcmConverter.format(sampleRate, 16, false, channels, false));
+    }
+
+    // Formát se převezme bez ohledu na pořadí bajtů – WAV je vždy little-endian
+    public WavWriter(Path path, AudioFormat format) throws IOException {
+        if (!PcmConverter.isSupported(format)) {
+            throw new IllegalArgumentException("Nepodporovaný formát WAV: " + format);
+        }
+        this.format = PcmConverter.format(format.getSampleRate(), format.getSampleSizeInBits(),
+                AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding()), format.getChannels(), false);
+        this.sampleRate = Math.round(format.getSampleRate());
+        this.channels = format.getChannels();
+        this.frameSize = this.format.getFrameSize();
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        putHeader(0); // Místo pro hlavičku, délky se doplní při zavření
+    }
+
+    @Override
+    public void write(float[] samples, int offset, int length) throws IOException {
+        while (length > 0) {
+            int n = Math.min(length, buffer.remaining() / frameSize); // Kolik snímků se vejde do bufferu
+            pcm.convert(samples, offset, n, format, buffer);
+            offset += n;
+            length -= n;
+            dataBytes += (long) frameSize * n;
+            if (buffer.remaining() < frameSize) { // Ani jeden další celý snímek se nevejde
+                flush();
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush(); // Zbytek dat
+            if (dataBytes > 0xFFFFFFFFL - HEADER_SIZE) {
+                throw new IOException("Render je příliš dlouhý pro formát WAV (" + dataBytes + " B)");
+            }
+            putHeader(dataBytes); // Hlavička se skutečnými délkami
+            buffer.flip();
+            channel.write(buffer, 0); // Přepsání hlavičky na začátku souboru
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putHeader(long dataLength) {
+        int blockAlign = frameSize; // Bajtů na snímek
+        boolean floating = AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding());
+        buffer.put("RIFF".getBytes(StandardCharsets.US_ASCII))
+                .putInt((int) (dataLength + HEADER_SIZE - 8))
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII))
+                .putInt(16)                 // Délka bloku fmt
+                .putShort((short) (floating ? 3 : 1)) // IEEE float nebo PCM
+                .putShort((short) channels)
+                .putInt(sampleRate)
+                .putInt(sampleRate * blockAlign) // Bajtů za sekundu
+                .putShort((short) blockAlign)
+                .putShort((short) format.getSampleSizeInBits()) // Bitů na vzorek
+                .put("data".getBytes(StandardCharsets.US_ASCII))
+                .putInt((int) dataLength);
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.syntak;
+
+// Pásmově omezené tabulky vln s mipmapami po oktávách.
+// Fáze je 32bitové celé číslo bez znaménka (přetečení = zabalení periody), horní bity indexují tabulku,
+// dolní bity slouží k lineární interpolaci. Tabulky se počítají jednou při načtení třídy.
+final class Wavetable {
+
+    static final int SIZE_BITS = 12; // Délka tabulky 4096 vzorků
+    static final int SIZE = 1 << SIZE_BITS;
+    private static final int FRACTION_BITS = 32 - SIZE_BITS; // Bity fáze pro interpolaci
+    private static final int FRACTION_MASK = (1 << FRACTION_BITS) - 1;
+    private static final float FRACTION_SCALE = 1f / (1 << FRACTION_BITS);
+
+    static final int LEVELS = 11; // Úroveň k obsahuje nejvýše 1024 >> k harmonických (1024 … 1)
+    private static final int MAX_HARMONICS = SIZE / 4; // Dost vzorků na periodu nejvyšší harmonické
+
+    static final double PHASE_SCALE = 4294967296.0; // 2^32 – jedna perioda ve fixní řádové čárce
+
+    // Čistý sínus – stačí jedna úroveň
+    static final Wavetable SINE = new Wavetable(new float[][]{sine()});
+    // Vzestupná pila -1 … 1, Fourierova řada -(2/π) Σ sin(kx)/k
+    static final Wavetable SAW = new Wavetable(saw());
+
+    private final float[][] levels; // Tabulky pro jednotlivé úrovně (délka SIZE + 1 kvůli interpolaci)
+
+    private Wavetable(float[][] levels) {
+        this.levels = levels;
+    }
+
+    // Výběr tabulky pro daný inkrement fáze tak, aby žádná harmonická nepřekročila Nyquistovu frekvenci
+    float[] forIncrement(int increment) {
+        if (levels.length == 1) {
+            return levels[0];
+        }
+        long cyclesPerSample = Math.abs((long) increment); // Frekvence / vzorkovací frekvence × 2^32
+        if (cyclesPerSample == 0) {
+            return levels[0];
+        }
+        long maxHarmonic = (1L << 31) / cyclesPerSample; // Nyquist / frekvence
+        int level = 0;
+        while (level < LEVELS - 1 && (MAX_HARMONICS >> level) > maxHarmonic) {
+            level++; // Méně harmonických pro vyšší oktávu
+        }
+        return levels[level];
+    }
+
+    // Lineárně interpolovaná hodnota tabulky v dané fázi
+    static float lookup(float[] table, int phase) {
+        int index = phase >>> FRACTION_BITS; // Horní bity = index
+        float fraction = (phase & FRACTION_MASK) * FRACTION_SCALE; // Dolní bity = poloha mezi vzorky
+        float a = table[index];
+        return a + (table[index + 1] - a) * fraction;
+    }
+
+    // Převod frekvence na inkrement 32bitové fáze
+    static int increment(double frequency, double sampleRate) {
+        return (int) Math.round(frequency / sampleRate * PHASE_SCALE); // Přetečení do záporných = zabalení
+    }
+
+    // Převod úhlu v radiánech na posun 32bitové fáze
+    static int phaseOffset(double radians) {
+        return (int) Math.round(radians / (2 * Math.PI) * PHASE_SCALE);
+    }
+
+    private static float[] sine() {
+        float[] table = new float[SIZE + 1];
+        for (int i = 0; i <= SIZE; i++) {
+            table[i] = (float) Math.sin(2 * Math.PI * i / SIZE);
+        }
+        return table;
+    }
+
+    // Aditivní syntéza pily; sin(kx) se čte z jedné základní tabulky, takže stavba trvá jen milisekundy
+    private static float[][] saw() {
+        double[] base = new double[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            base[i] = Math.sin(2 * Math.PI * i / SIZE);
+        }
+        float[][] levels = new float[LEVELS][];
+        double[] sum = new double[SIZE];
+        int built = 0; // Počet harmonických již sečtených v sum
+        // Od nejvyšší úrovně (nejméně harmonických) k nejnižší – každá úroveň jen přičte další harmonické
+        for (int level = LEVELS - 1; level >= 0; level--) {
+            int harmonics = MAX_HARMONICS >> level;
+            for (int k = built + 1; k <= harmonics; k++) {
+                double amplitude = -2 / (Math.PI * k);
+                for (int i = 0; i < SIZE; i++) {
+                    sum[i] += amplitude * base[(int) ((long) k * i & (SIZE - 1))];
+                }
+            }
+            built = harmonics;
+            float[] table = new float[SIZE + 1];
+            for (int i = 0; i < SIZE; i++) {
+                table[i] = (float) sum[i];
+            }
+            table[SIZE] = table[0]; // Kopie prvního vzorku pro interpolaci na konci periody
+            levels[level] = table;
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.syntak;
+
+import org.junit.jupiter.api.Test; // Import anotace testu
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Import porovnání hodnot
+import static org.junit.jupiter.api.Assertions.assertFalse; // Import ověření nepravdy
+import static org.junit.jupiter.api.Assertions.assertTrue; // Import ověření pravdy
+
+// Testy stavové obálky ADSR počítané po řídicích úsecích
+class EnvelopeTest {
+
+    private static final double SAMPLE_RATE = 44100;
+
+    private static Envelope envelope(double attack, double decay, double sustain, double release) {
+        Envelope e = new Envelope();
+        e.configure(attack, decay, sustain, release, SAMPLE_RATE, false);
+        return e;
+    }
+
+    @Test
+    void attackEndsAfterAttackTime() {
+        Envelope e = envelope(0.01, 0.1, 0.5, 0.1);
+        e.gateOn();
+        int samples = 0;
+        while (e.level() < 1.0) {
+            e.advance(1);
+            samples++;
+            assertTrue(samples <= 1000, "Nástup neskončil");
+        }
+        assertEquals(0.01 * SAMPLE_RATE, samples, 1.0); // 441 vzorků
+    }
+
+    @Test
+    void gateOffMidAttackReleasesFromCurrentLevel() {
+        Envelope e = envelope(0.1, 0.1, 0.8, 0.05);
+        e.gateOn();
+        for (int i = 0; i < 69; i++) {
+            e.advance(Envelope.CONTROL_PERIOD); // 2208 vzorků ≈ polovina nástupu
+        }
+        double held = e.level();
+        assertEquals(0.5, held, 0.01);
+
+        e.gateOff();
+        assertTrue(e.isReleased());
+        double step = held / (0.05 * SAMPLE_RATE); // Lineární pokles z úrovně při uvolnění
+        assertEquals(held - step, e.advance(1), 1e-9); // Bez skoku
+        int samples = 1;
+        while (e.isActive()) {
+            e.advance(1);
+            samples++;
+        }
+        assertEquals(0.05 * SAMPLE_RATE, samples, 1.0);
+        assertEquals(0.0, e.level());
+    }
+
+    @Test
+    void zeroLengthStagesJumpWithoutNaN() {
+        Envelope e = envelope(0, 0, 1, 0); // decay = 0 při sustain = 1 by dalo 0/0
+        e.gateOn();
+        assertEquals(1.0, e.advance(1));
+        assertEquals(1.0, e.advance(Envelope.CONTROL_PERIOD)); // Zůstává na sustain
+        e.gateOff();
+        assertEquals(0.0, e.advance(1));
+        assertFalse(e.isActive());
+
+        Envelope d = envelope(0, 0, 0.5, 0.1);
+        d.gateOn();
+        assertEquals(0.5, d.advance(1)); // Nástup i pokles v jediném vzorku
+    }
+
+    @Test
+    void advanceCrossesSeveralStagesInOneControlPeriod() {
+        double tenSamples = 10 / SAMPLE_RATE;
+        Envelope e = envelope(tenSamples, tenSamples, 0.5, 16 / SAMPLE_RATE);
+        e.gateOn();
+        assertEquals(0.5, e.advance(Envelope.CONTROL_PERIOD)); // Attack → decay → sustain v jednom úseku
+        e.gateOff();
+        assertEquals(0.0, e.advance(Envelope.CONTROL_PERIOD)); // Release (16 vzorků) skončí uvnitř úseku
+        assertFalse(e.isActive());
+    }
+
+    @Test
+    void sustainOfOneHoldsFullLevelAfterAttack() {
+        Envelope e = envelope(0.01, 0.2, 1.0, 0.1);
+        e.gateOn();
+        for (int i = 0; i < 100; i++) {
+            double level = e.advance(Envelope.CONTROL_PERIOD);
+            assertFalse(Double.isNaN(level));
+        }
+        assertEquals(1.0, e.level()); // Decay nemá kam klesat
+        assertFalse(e.isReleased());
+    }
+}
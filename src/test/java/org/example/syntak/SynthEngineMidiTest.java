@@ -0,0 +1,100 @@
+package org.example.syntak;
+
+import org.junit.jupiter.api.Test; // Import anotace testu
+
+import javax.sound.midi.ShortMessage; // Import MIDI zprávy pro MidiInput
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Import porovnání hodnot
+
+// Umístění MIDI událostí na přesný vzorek bloku podle časové značky (pevné hodiny enginu)
+class SynthEngineMidiTest {
+
+    private static final double SAMPLE_RATE = 44100;
+    private static final int BLOCK = 1024;
+    private static final long NOW = 1_000_000_000L; // Čas pevných hodin v ns
+
+    private static SynthEngine engine() {
+        SynthEngine engine = new SynthEngine();
+        engine.setClock(() -> NOW);
+        engine.setSampleRate(SAMPLE_RATE);
+        return engine;
+    }
+
+    private static long nanos(int samples) {
+        return Math.round(samples / SAMPLE_RATE * 1e9);
+    }
+
+    // Vzorek, na kterém nota začala (délka bloku = ticho). Nota začíná s úrovní obálky 0 a fází sinu 0,
+    // takže první nenulový vzorek je až ten následující.
+    private static int onset(float[] block) {
+        for (int i = 0; i < block.length; i++) {
+            if (block[i] != 0) {
+                return i - 1;
+            }
+        }
+        return block.length;
+    }
+
+    @Test
+    void noteOnLandsOnItsSampleOffset() {
+        for (int offset : new int[]{0, 1, 777}) {
+            SynthEngine engine = engine();
+            long windowStart = NOW - nanos(BLOCK);
+            engine.postMidi(windowStart + nanos(offset), 0x90, 69, 100);
+            float[] block = new float[BLOCK];
+            engine.render(block, 0, BLOCK, windowStart);
+            assertEquals(offset, onset(block), "offset " + offset);
+            assertEquals(0, engine.getPendingMidiEvents());
+        }
+    }
+
+    @Test
+    void lateEventPlaysAtBlockStart() {
+        SynthEngine engine = engine();
+        long windowStart = NOW - nanos(BLOCK);
+        engine.postMidi(windowStart - nanos(300), 0x90, 69, 100); // Patřila do předchozího bloku
+        float[] block = new float[BLOCK];
+        engine.render(block, 0, BLOCK, windowStart);
+        assertEquals(0, onset(block));
+    }
+
+    @Test
+    void futureEventWaitsForItsBlock() {
+        SynthEngine engine = engine();
+        long windowStart = NOW - nanos(BLOCK);
+        engine.postMidi(windowStart + nanos(BLOCK + 100), 0x90, 69, 100);
+        float[] block = new float[BLOCK];
+        engine.render(block, 0, BLOCK, windowStart);
+        assertEquals(BLOCK, onset(block)); // Celý blok ticho
+        assertEquals(1, engine.getPendingMidiEvents());
+        engine.render(block, 0, BLOCK, windowStart + nanos(BLOCK));
+        assertEquals(100, onset(block));
+    }
+
+    @Test
+    void defaultWindowEndsAtClock() {
+        SynthEngine engine = engine();
+        engine.postMidi(NOW - nanos(BLOCK - 777), 0x90, 69, 100); // Okno render(out, …) je [NOW - blok, NOW)
+        float[] block = new float[BLOCK];
+        engine.render(block, 0, BLOCK);
+        assertEquals(777, onset(block));
+    }
+
+    @Test
+    void midiInputTimestampPlacesLateDeliveredMessage() throws Exception {
+        long[] clock = {NOW};
+        SynthEngine engine = engine();
+        engine.setClock(() -> clock[0]);
+        MidiInput input = new MidiInput(engine);
+        // První zpráva určí posun hodin zařízení: značka 5 000 µs odpovídá času NOW
+        input.send(new ShortMessage(ShortMessage.NOTE_OFF, 0, 60, 0), 5_000);
+        // Nota zahraná o 2 ms později, doručená až o 5 ms později – rozhoduje značka, ne příchod
+        clock[0] = NOW + 5_000_000;
+        input.send(new ShortMessage(ShortMessage.NOTE_ON, 0, 69, 100), 7_000);
+        long windowStart = NOW + 2_000_000 - nanos(777);
+        float[] block = new float[BLOCK];
+        engine.render(block, 0, BLOCK, windowStart);
+        assertEquals(777, onset(block));
+        input.close();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.syntak;
+
+import org.junit.jupiter.api.Test; // Import anotace testu
+
+import java.util.Arrays; // Import pro plnění bufferů
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Import porovnání hodnot
+import static org.junit.jupiter.api.Assertions.assertThrows; // Import očekávané výjimky
+
+// Testy přidělování bufferů a rozvrhu v SynthGraph.compile()
+class SynthGraphTest {
+
+    // Zdroj konstantního signálu
+    private static final class ConstantUnit extends UnitGenerator {
+        private final float value;
+
+        ConstantUnit(float value) {
+            super(0);
+            this.value = value;
+        }
+
+        @Override
+        protected void process(int length) {
+            Arrays.fill(output, 0, length, value);
+        }
+    }
+
+    @Test
+    void sourceFeedingTwoInputsOfOneNodeIsReleasedOnce() {
+        SynthGraph graph = new SynthGraph();
+        ConstantUnit source = graph.add(new ConstantUnit(1f));
+        MixerUnit fanIn = graph.add(new MixerUnit(2));
+        AmplifierUnit unity = graph.add(new AmplifierUnit());
+        AmplifierUnit doubled = graph.add(new AmplifierUnit());
+        MixerUnit out = graph.add(new MixerUnit(2));
+        doubled.setGain(2.0, 0.0);
+        graph.connect(source, fanIn, 0)
+                .connect(source, fanIn, 1) // Stejný zdroj do dvou vstupů téhož uzlu
+                .connect(fanIn, unity, AmplifierUnit.AUDIO)
+                .connect(fanIn, doubled, AmplifierUnit.AUDIO)
+                .connect(unity, out, 0)
+                .connect(doubled, out, 1)
+                .setOutput(out);
+        CompiledGraph compiled = graph.compile(64);
+
+        float[] block = new float[100];
+        compiled.process(block, 0, block.length);
+        for (float sample : block) {
+            assertEquals(6f, sample, 1e-6f); // (1 + 1) · 1 + (1 + 1) · 2
+        }
+        assertEquals(3, compiled.bufferCount()); // Oba zesilovače musí mít vlastní buffer
+    }
+
+    @Test
+    void chainReusesReleasedBuffers() {
+        SynthGraph graph = new SynthGraph();
+        ConstantUnit source = graph.add(new ConstantUnit(0.5f));
+        AmplifierUnit first = graph.add(new AmplifierUnit());
+        AmplifierUnit second = graph.add(new AmplifierUnit());
+        AmplifierUnit third = graph.add(new AmplifierUnit());
+        first.setGain(2.0, 0.0);
+        graph.connect(source, first, AmplifierUnit.AUDIO)
+                .connect(first, second, AmplifierUnit.AUDIO)
+                .connect(second, third, AmplifierUnit.AUDIO)
+                .setOutput(third);
+        CompiledGraph compiled = graph.compile(32);
+
+        float[] block = new float[32];
+        compiled.process(block, 0, block.length);
+        assertEquals(1f, block[31], 1e-6f);
+        assertEquals(4, compiled.size());
+        assertEquals(2, compiled.bufferCount()); // Řetězec střídá dva buffery
+    }
+
+    @Test
+    void cycleIsRejected() {
+        SynthGraph graph = new SynthGraph();
+        MixerUnit a = graph.add(new MixerUnit(1));
+        MixerUnit b = graph.add(new MixerUnit(1));
+        graph.connect(a, b, 0).connect(b, a, 0).setOutput(b);
+        assertThrows(IllegalStateException.class, () -> graph.compile(64));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.syntak;
+
+import org.junit.jupiter.api.Test; // Import anotace testu
+
+import java.util.Properties; // Import pro patch ve formátu .properties
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Import porovnání hodnot
+import static org.junit.jupiter.api.Assertions.assertSame; // Import porovnání identity
+import static org.junit.jupiter.api.Assertions.assertThrows; // Import očekávané výjimky
+import static org.junit.jupiter.api.Assertions.assertTrue; // Import podmínky
+
+// Hlasy jako graf jednotkových generátorů: vestavěná zapojení, vlastní builder a nastavení z patche
+class VoiceGraphTest {
+
+    private static final int LENGTH = 8192;
+
+    private static float[] render(Patch patch) {
+        SynthEngine engine = new OfflineRenderer(patch).getEngine();
+        engine.noteOn(60, 0.8);
+        engine.noteOn(67, 0.6);
+        float[] out = new float[LENGTH];
+        engine.render(out, 0, LENGTH);
+        return out;
+    }
+
+    private static double maxDifference(float[] a, float[] b) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Math.abs(a[i] - b[i]));
+        }
+        return max;
+    }
+
+    private static double peak(float[] block) {
+        double max = 0;
+        for (float v : block) {
+            max = Math.max(max, Math.abs(v));
+        }
+        return max;
+    }
+
+    @Test
+    void builtInGraphsWithOpenFilterMatchHardWiredVoice() {
+        float[] wired = render(new Patch().setWaveType("saw"));
+        assertTrue(peak(wired) > 0.1);
+        for (String graph : new String[]{"standard", "parallel"}) {
+            float[] voices = render(new Patch().setWaveType("saw").setVoiceGraph(graph));
+            assertEquals(0, maxDifference(wired, voices), 1e-5, graph);
+        }
+    }
+
+    @Test
+    void patchPropertiesReachTheFilter() {
+        Properties properties = new Properties();
+        properties.setProperty("wave", "saw");
+        properties.setProperty("graph", "parallel");
+        properties.setProperty("cutoff", "200");
+        properties.setProperty("resonance", "0.3");
+        Patch patch = Patch.fromProperties(properties);
+        assertSame(VoiceGraphBuilder.PARALLEL, patch.getVoiceGraph());
+        assertEquals(200.0, patch.getFilterCutoff());
+
+        float[] filtered = render(patch);
+        float[] open = render(new Patch().setWaveType("saw").setVoiceGraph("parallel"));
+        assertTrue(peak(filtered) > 0.01);
+        assertTrue(maxDifference(open, filtered) > 0.01); // Zavřený filtr zvuk změní
+    }
+
+    @Test
+    void customBuilderMustKeepTheVoiceEnvelope() {
+        SynthEngine engine = new SynthEngine();
+        VoiceGraphBuilder noEnvelope = u -> new SynthGraph()
+                .connect(u.oscillator(), u.amplifier(), AmplifierUnit.AUDIO)
+                .setOutput(u.amplifier());
+        assertThrows(IllegalArgumentException.class, () -> engine.setVoiceGraph(noEnvelope));
+        assertEquals(null, engine.getVoiceGraph()); // Chybné zapojení hlasy nezmění
+
+        VoiceGraphBuilder dry = u -> new SynthGraph() // Oscilátor bez filtru a LFO
+                .connect(u.oscillator(), u.amplifier(), AmplifierUnit.AUDIO)
+                .connect(u.envelope(), u.amplifier(), AmplifierUnit.CONTROL)
+                .setOutput(u.amplifier());
+        engine.setVoiceGraph(dry);
+        engine.noteOn(69, 1.0);
+        float[] out = new float[LENGTH];
+        engine.render(out, 0, LENGTH);
+        assertTrue(peak(out) > 0.1);
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.syntak;
+
+import org.junit.jupiter.api.Test; // Import anotace testu
+import org.junit.jupiter.api.Timeout; // Import limitu – zacyklený zápis nesmí zablokovat build
+import org.junit.jupiter.api.io.TempDir; // Import dočasného adresáře
+
+import javax.sound.sampled.AudioFormat; // Import pro popis formátu
+import javax.sound.sampled.AudioInputStream; // Import pro čtení dat zpět
+import javax.sound.sampled.AudioSystem; // Import pro nezávislé načtení souboru WAV
+import java.nio.ByteBuffer; // Import pro dekódování vzorků
+import java.nio.ByteOrder; // Import pro pořadí bajtů WAV
+import java.nio.file.Path; // Import pro cestu k souboru
+
+import static org.junit.jupiter.api.Assertions.assertEquals; // Import porovnání hodnot
+
+// Zápis a zpětné načtení WAV ve všech podporovaných formátech; data jsou delší než buffer zapisovače
+class WavWriterTest {
+
+    private static final int FRAMES = 300_000; // Víc než 1 MiB dat i u 16 bitů mono
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @Timeout(60)
+    void roundTripAllFormatsLongerThanBuffer() throws Exception {
+        float[] samples = new float[FRAMES];
+        for (int i = 0; i < FRAMES; i++) {
+            samples[i] = (float) (0.9 * Math.sin(2 * Math.PI * 440 * i / 44100.0));
+        }
+        int[][] encodings = {{16, 0}, {24, 0}, {32, 0}, {32, 1}}; // {bity, float}
+        for (int[] encoding : encodings) {
+            for (int channels = 1; channels <= 2; channels++) {
+                AudioFormat format = PcmConverter.format(44100, encoding[0], encoding[1] == 1, channels, false);
+                Path file = dir.resolve(encoding[0] + "-" + encoding[1] + "-" + channels + ".wav");
+                try (WavWriter writer = new WavWriter(file, format)) {
+                    for (int done = 0; done < FRAMES; done += 4096) { // Bloky jako při offline renderu
+                        writer.write(samples, done, Math.min(4096, FRAMES - done));
+                    }
+                }
+                assertRoundTrip(file, format, samples);
+            }
+        }
+    }
+
+    private static void assertRoundTrip(Path file, AudioFormat expected, float[] samples) throws Exception {
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(file.toFile())) {
+            AudioFormat format = in.getFormat();
+            String name = expected.toString();
+            assertEquals(expected.getEncoding(), format.getEncoding(), name);
+            assertEquals(expected.getSampleSizeInBits(), format.getSampleSizeInBits(), name);
+            assertEquals(expected.getChannels(), format.getChannels(), name);
+            assertEquals(samples.length, in.getFrameLength(), name);
+
+            ByteBuffer data = ByteBuffer.wrap(in.readAllBytes()).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals((long) samples.length * format.getFrameSize(), data.capacity(), name);
+            int bits = format.getSampleSizeInBits();
+            boolean floating = AudioFormat.Encoding.PCM_FLOAT.equals(format.getEncoding());
+            double tolerance = bits == 16 ? 1.0 / 32767 : 1e-6; // Kvantování 16 bitů, jinak prakticky přesně
+            for (int i = 0; i < samples.length; i++) {
+                for (int ch = 0; ch < format.getChannels(); ch++) { // Mono mix ve všech kanálech
+                    double value = switch (bits) {
+                        case 16 -> data.getShort() / 32767.0;
+                        case 24 -> ((data.get() & 0xFF) | (data.get() & 0xFF) << 8 | data.get() << 16) / 8388607.0;
+                        default -> floating ? data.getFloat() : data.getInt() / 2147483647.0;
+                    };
+                    assertEquals(samples[i], value, tolerance, name + " snímek " + i);
+                }
+            }
+        }
+    }
+}